@@ -0,0 +1,350 @@
+/************************************
+ * Ivy Huynh
+ * CS635-M1-Priority Queue Assignment
+ * **********************************
+ */
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * A priority queue for Student objects that also answers order-statistic queries.
+ * Instead of an array heap, students are kept in two size-augmented treaps:
+ * - one ordered by the queue's strategy, for peek/poll, rankOf and select
+ * - one ordered by priorityScore(), for countAbove and percentile cuts
+ * plus a Red ID index so rankOf and remove never scan.
+ *
+ * Every operation is O(log N) expected: offer, poll, remove, rankOf, select,
+ * countAbove and percentileScore. Iteration is an O(N) in-order walk, with no sort.
+ *
+ * Red IDs are unique keys here: offering a student whose Red ID is already queued
+ * returns false and leaves the queue unchanged.
+ */
+public class OrderStatisticStudentQueue extends AbstractQueue<Student> {
+
+    /** Score order: highest priorityScore() first, Red ID as the tie-breaker */
+    private static final Comparator<Student> BY_SCORE =
+            Comparator.comparingDouble(Student::priorityScore).reversed()
+                    .thenComparing(Student::getRedId);
+
+    /**
+     * Students in strategy order (Strategy pattern), for peek/poll, rankOf and select.
+     * Red ID breaks ties, since a strategy may rank different students equal and the
+     * treap needs one distinct key per student to find the right node again.
+     */
+    private final OrderStatisticTree<Student> byPriority;
+    private final OrderStatisticTree<Student> byScore = new OrderStatisticTree<>(BY_SCORE);
+    private final Map<String, Student> byRedId = new HashMap<>();
+
+    /**
+     * Default constructor using the default prioritization strategy.
+     */
+    public OrderStatisticStudentQueue() {
+        this(DefaultStudentStrategy.INSTANCE);
+    }
+
+    /**
+     * Constructor with custom strategy for dynamic ordering behavior.
+     * @param strategy The priority strategy to use for ordering students
+     */
+    public OrderStatisticStudentQueue(PriorityStrategy strategy) {
+        Objects.requireNonNull(strategy, "Strategy must not be null");
+        this.byPriority = new OrderStatisticTree<>(strategy.thenComparing(Student::getRedId));
+    }
+
+    // ---- Core Queue Operations ----
+
+    @Override
+    public int size() {
+        return byRedId.size();
+    }
+
+    /**
+     * Retrieves, but does not remove, the highest priority student.
+     * Time Complexity: O(log N)
+     */
+    @Override
+    public Student peek() {
+        return isEmpty() ? null : byPriority.select(0);
+    }
+
+    /**
+     * Adds a student to the queue.
+     * Time Complexity: O(log N)
+     * @param student The student to add
+     * @return true if added, false if a student with the same Red ID is already queued
+     */
+    @Override
+    public boolean offer(Student student) {
+        Objects.requireNonNull(student, "Student must not be null");
+        if (byRedId.putIfAbsent(student.getRedId(), student) != null) return false;
+        byPriority.insert(student);
+        byScore.insert(student);
+        return true;
+    }
+
+    /**
+     * Removes and returns the highest priority student.
+     * Time Complexity: O(log N)
+     */
+    @Override
+    public Student poll() {
+        Student top = peek();
+        if (top != null) detach(top);
+        return top;
+    }
+
+    /**
+     * Removes a specific student, found by Red ID.
+     * Time Complexity: O(log N)
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Student)) return false;
+        Student stored = byRedId.get(((Student) o).getRedId());
+        if (stored == null) return false;
+        detach(stored);
+        return true;
+    }
+
+    private void detach(Student stored) {
+        byRedId.remove(stored.getRedId());
+        byPriority.delete(stored);
+        byScore.delete(stored);
+    }
+
+    // ---- Order-Statistic Queries ----
+
+    /**
+     * Returns the 1-based position of a student in priority order, matching the
+     * numbering printed by StudentPriorityQueue.printPriorityOrder().
+     * Time Complexity: O(log N)
+     * @param redId The student's Red ID
+     * @return The position (1 = top of the queue), or -1 if the student is not queued
+     */
+    public int rankOf(String redId) {
+        Student stored = byRedId.get(redId);
+        return stored == null ? -1 : byPriority.rankOf(stored) + 1;
+    }
+
+    /**
+     * Returns the student at a 1-based position in priority order.
+     * Time Complexity: O(log N)
+     * @param rank The position, from 1 (top) to size()
+     * @throws IndexOutOfBoundsException if rank is outside [1, size()]
+     */
+    public Student select(int rank) {
+        if (rank < 1 || rank > size()) {
+            throw new IndexOutOfBoundsException("rank must be in [1, " + size() + "]: " + rank);
+        }
+        return byPriority.select(rank - 1);
+    }
+
+    /**
+     * Counts students whose priorityScore() is strictly greater than the given score.
+     * This uses the 70/30 score from Student regardless of the queue's strategy.
+     * Time Complexity: O(log N)
+     */
+    public int countAbove(double score) {
+        return byScore.countBefore(s -> s.priorityScore() > score ? -1 : 1);
+    }
+
+    /**
+     * Returns the score cut for the top fraction of students: the priorityScore() of the
+     * lowest-scoring student still inside the top ceil(fraction * size()).
+     * For example, percentileScore(0.10) is the score needed to be in the top 10%.
+     * Time Complexity: O(log N)
+     * @param fraction The top fraction, in (0.0, 1.0]
+     * @return The cut score, or Double.NaN if the queue is empty
+     */
+    public double percentileScore(double fraction) {
+        if (!(fraction > 0.0 && fraction <= 1.0)) {
+            throw new IllegalArgumentException("fraction must be in (0.0, 1.0]");
+        }
+        if (isEmpty()) return Double.NaN;
+        int count = (int) Math.ceil(fraction * size());
+        return byScore.select(Math.max(count, 1) - 1).priorityScore();
+    }
+
+    // ---- Collection Integration Methods ----
+
+    /**
+     * Returns an iterator in descending priority order.
+     * Non-destructive; walks a snapshot of the priority tree in order, so no sort is needed.
+     */
+    @Override
+    public Iterator<Student> iterator() {
+        List<Student> ordered = new ArrayList<>(size());
+        byPriority.inOrder(ordered);
+        return Collections.unmodifiableList(ordered).iterator();
+    }
+
+    /**
+     * A treap (randomized balanced BST) where each node also stores its subtree size,
+     * which turns rank and select into a single root-to-leaf walk.
+     */
+    private static final class OrderStatisticTree<T> {
+        private static final class Node<T> {
+            final T value;
+            final int priority;
+            int size = 1;
+            Node<T> left, right;
+
+            Node(T value, int priority) {
+                this.value = value;
+                this.priority = priority;
+            }
+        }
+
+        private final Comparator<? super T> comparator;
+        private final Random random = new Random();
+        private Node<T> root;
+
+        OrderStatisticTree(Comparator<? super T> comparator) {
+            this.comparator = comparator;
+        }
+
+        void insert(T value) {
+            root = insert(root, new Node<>(value, random.nextInt()));
+        }
+
+        void delete(T value) {
+            root = delete(root, value);
+        }
+
+        /** Returns the 0-based index of the value in comparator order */
+        int rankOf(T value) {
+            int rank = 0;
+            Node<T> node = root;
+            while (node != null) {
+                int cmp = comparator.compare(value, node.value);
+                if (cmp < 0) {
+                    node = node.left;
+                } else {
+                    rank += size(node.left);
+                    if (cmp == 0) return rank;
+                    rank++;
+                    node = node.right;
+                }
+            }
+            throw new NoSuchElementException("Value not in tree: " + value);
+        }
+
+        /** Returns the value at a 0-based index in comparator order */
+        T select(int index) {
+            Node<T> node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index == leftSize) {
+                    return node.value;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+
+        /**
+         * Counts the prefix of values that lie before a boundary.
+         * side(v) must be negative for values before the boundary and non-negative after it,
+         * and must be monotone in comparator order.
+         */
+        int countBefore(ToIntFunction<? super T> side) {
+            int count = 0;
+            Node<T> node = root;
+            while (node != null) {
+                if (side.applyAsInt(node.value) < 0) {
+                    count += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return count;
+        }
+
+        void inOrder(List<? super T> out) {
+            Deque<Node<T>> stack = new ArrayDeque<>();
+            Node<T> node = root;
+            while (node != null || !stack.isEmpty()) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+                node = stack.pop();
+                out.add(node.value);
+                node = node.right;
+            }
+        }
+
+        private Node<T> insert(Node<T> node, Node<T> fresh) {
+            if (node == null) return fresh;
+            if (comparator.compare(fresh.value, node.value) < 0) {
+                node.left = insert(node.left, fresh);
+                if (node.left.priority > node.priority) node = rotateRight(node);
+            } else {
+                node.right = insert(node.right, fresh);
+                if (node.right.priority > node.priority) node = rotateLeft(node);
+            }
+            update(node);
+            return node;
+        }
+
+        private Node<T> delete(Node<T> node, T value) {
+            if (node == null) throw new NoSuchElementException("Value not in tree: " + value);
+            int cmp = comparator.compare(value, node.value);
+            if (cmp < 0) {
+                node.left = delete(node.left, value);
+            } else if (cmp > 0) {
+                node.right = delete(node.right, value);
+            } else {
+                return merge(node.left, node.right);
+            }
+            update(node);
+            return node;
+        }
+
+        /** Joins two treaps where every value in a precedes every value in b */
+        private Node<T> merge(Node<T> a, Node<T> b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            if (a.priority > b.priority) {
+                a.right = merge(a.right, b);
+                update(a);
+                return a;
+            }
+            b.left = merge(a, b.left);
+            update(b);
+            return b;
+        }
+
+        private Node<T> rotateRight(Node<T> node) {
+            Node<T> pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private Node<T> rotateLeft(Node<T> node) {
+            Node<T> pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static int size(Node<?> node) {
+            return node == null ? 0 : node.size;
+        }
+
+        private static void update(Node<?> node) {
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+    }
+}
@@ -12,7 +12,11 @@ import java.util.Comparator;
  * at queue creation time, providing flexibility in how students are ordered.
  */
 
-/** Strategy interface: how to order Students in the queue. */
+/**
+ * Strategy interface: how to order Students in the queue.
+ * Two strategies are equal only if they order students identically; stateless
+ * strategies override equals, lambdas and other instances fall back to identity.
+ */
 interface PriorityStrategy extends Comparator<Student> {}
 
 /**
@@ -20,6 +24,9 @@ interface PriorityStrategy extends Comparator<Student> {}
  * This follows the original assignment requirements for student prioritization.
  */
 final class DefaultStudentStrategy implements PriorityStrategy {
+    /** Shared instance; the strategy is stateless, so queues need not each allocate one */
+    static final DefaultStudentStrategy INSTANCE = new DefaultStudentStrategy();
+
     private static final double EPS = 1e-9;
 
     @Override
@@ -32,6 +39,16 @@ final class DefaultStudentStrategy implements PriorityStrategy {
         if (nameCmp != 0) return nameCmp;
         return a.getRedId().compareTo(b.getRedId());
     }
+    /** Stateless, so every instance orders students identically */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DefaultStudentStrategy;
+    }
+
+    @Override
+    public int hashCode() {
+        return DefaultStudentStrategy.class.hashCode();
+    }
 }
 
 /**
@@ -39,6 +56,9 @@ final class DefaultStudentStrategy implements PriorityStrategy {
  * Demonstrates the flexibility of the strategy pattern for different prioritization needs.
  */
 final class GPAFirstStrategy implements PriorityStrategy {
+    /** Shared instance; the strategy is stateless, so queues need not each allocate one */
+    static final GPAFirstStrategy INSTANCE = new GPAFirstStrategy();
+
     private static final double EPS = 1e-9;
 
     @Override
@@ -49,4 +69,14 @@ final class GPAFirstStrategy implements PriorityStrategy {
         if (nameCmp != 0) return nameCmp;
         return a.getRedId().compareTo(b.getRedId());
     }
+    /** Stateless, so every instance orders students identically */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GPAFirstStrategy;
+    }
+
+    @Override
+    public int hashCode() {
+        return GPAFirstStrategy.class.hashCode();
+    }
 }
\ No newline at end of file
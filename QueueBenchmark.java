@@ -0,0 +1,395 @@
+/************************************
+ * Ivy Huynh
+ * CS635-M1-Priority Queue Assignment
+ * **********************************
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Simple benchmark runner without a JMH dependency.
+ * Each benchmark warms up, then reports the best of several timed rounds.
+ * Usage: java QueueBenchmark [all|feed|backends|footprint|window|snapshot|alloc]
+ */
+public class QueueBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int TIMED_ROUNDS = 5;
+
+    // Helper method to create a reproducible pool of distinct students
+    static Student[] createStudents(int count, long seed) {
+        Random random = new Random(seed);
+        Student[] students = new Student[count];
+        for (int i = 0; i < count; i++) {
+            int units = random.nextInt(Student.MAX_UNITS + 1);
+            double gpa = random.nextInt(401) / 100.0;
+            String id = "R" + (1000000 + i);
+            students[i] = new Student("Name" + id, id, id + "@university.edu", gpa, units);
+        }
+        return students;
+    }
+
+    /** Runs a body for warmup and timed rounds; returns the best operations per second */
+    static double bestOpsPerSecond(long opsPerRound, Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) round.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            round.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return opsPerRound * 1e9 / best;
+    }
+
+    // ---- Change feed: offer/poll throughput with 0, 1 and 10 subscribers ----
+
+    static void benchmarkChangeFeed() throws InterruptedException {
+        System.out.println("Change feed: offer+poll pairs on a 10K queue");
+        Student[] pool = createStudents(20_000, 1);
+        int pairs = 1_000_000;
+        for (int subscribers : new int[] {0, 1, 10}) {
+            StudentPriorityQueue pq = new StudentPriorityQueue();
+            for (int i = 0; i < 10_000; i++) pq.offer(pool[i]);
+            AtomicLong addedDelivered = new AtomicLong();
+            for (int i = 0; i < subscribers; i++) {
+                pq.subscribe(batch -> {
+                    int added = 0;
+                    for (QueueEvent event : batch) if (event.getType() == QueueEvent.Type.ADDED) added++;
+                    addedDelivered.addAndGet(added);
+                });
+            }
+
+            long[] offers = {0};
+            double opsPerSecond = bestOpsPerSecond(2L * pairs, () -> {
+                for (int i = 0; i < pairs; i++) {
+                    pq.offer(pool[10_000 + (i % 10_000)]);
+                    pq.poll();
+                }
+                offers[0] += pairs;
+            });
+            if (subscribers == 0) {
+                System.out.printf("  %2d subscribers: %,12.0f ops/sec%n", subscribers, opsPerSecond);
+                continue;
+            }
+
+            // Let the feed finish delivering before counting what arrived
+            for (long seen = -1; seen != addedDelivered.get(); ) {
+                seen = addedDelivered.get();
+                Thread.sleep(100);
+            }
+            System.out.printf("  %2d subscribers: %,12.0f ops/sec, ADDED delivered %,d of %,d per subscriber, %,d events dropped%n",
+                    subscribers, opsPerSecond, addedDelivered.get() / subscribers, offers[0], pq.getDroppedEventCount());
+        }
+    }
+
+    // ---- Heap backends: offer/poll throughput and meld latency ----
+
+    static void benchmarkBackends() {
+        int n = 100_000;
+        Student[] pool = createStudents(2 * n, 2);
+        System.out.println("Heap backends: offer+poll pairs on a 100K queue");
+        reportOfferPoll("array  ", ArrayHeapBackend::new, pool, n);
+        reportOfferPoll("pairing", PairingHeapBackend::new, pool, n);
+
+        System.out.println("Heap backends: fill 100K then drain (offer all, poll all)");
+        reportFillDrain("array  ", ArrayHeapBackend::new, pool, n);
+        reportFillDrain("pairing", PairingHeapBackend::new, pool, n);
+
+        System.out.println("Heap backends: meld two 100K queues (best of 5)");
+        reportMeld("array (repeated offer)", ArrayHeapBackend::new, pool, n, true);
+        reportMeld("array (meld)          ", ArrayHeapBackend::new, pool, n, false);
+        reportMeld("pairing (meld)        ", PairingHeapBackend::new, pool, n, false);
+    }
+
+    private static void reportOfferPoll(String label, Function<PriorityStrategy, HeapBackend> backend,
+                                        Student[] pool, int n) {
+        StudentPriorityQueue pq = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, backend);
+        for (int i = 0; i < n; i++) pq.offer(pool[i]);
+        int pairs = 500_000;
+        double opsPerSecond = bestOpsPerSecond(2L * pairs, () -> {
+            for (int i = 0; i < pairs; i++) {
+                pq.offer(pool[n + (i % n)]);
+                pq.poll();
+            }
+        });
+        System.out.printf("  %s: %,12.0f ops/sec%n", label, opsPerSecond);
+    }
+
+    private static void reportFillDrain(String label, Function<PriorityStrategy, HeapBackend> backend,
+                                        Student[] pool, int n) {
+        double opsPerSecond = bestOpsPerSecond(2L * n, () -> {
+            StudentPriorityQueue pq = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, backend);
+            for (int i = 0; i < n; i++) pq.offer(pool[i]);
+            while (pq.poll() != null) { }
+        });
+        System.out.printf("  %s: %,12.0f ops/sec%n", label, opsPerSecond);
+    }
+
+    private static void reportMeld(String label, Function<PriorityStrategy, HeapBackend> backend,
+                                   Student[] pool, int n, boolean byOffer) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+            StudentPriorityQueue a = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, backend);
+            StudentPriorityQueue b = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, backend);
+            for (int i = 0; i < n; i++) {
+                a.offer(pool[i]);
+                b.offer(pool[n + i]);
+            }
+            long start = System.nanoTime();
+            if (byOffer) {
+                for (Student s = b.poll(); s != null; s = b.poll()) a.offer(s);
+            } else {
+                a.meld(b);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) best = Math.min(best, elapsed);
+        }
+        System.out.printf("  %s: %,12.3f ms%n", label, best / 1e6);
+    }
+
+    // ---- Many small queues: bytes per queue and tiny-queue throughput ----
+
+    static void benchmarkFootprint() {
+        int queues = 200_000;
+        Student[] pool = createStudents(40, 3);
+        Random sizes = new Random(4);
+        int[] sizeOf = new int[queues];
+        for (int i = 0; i < queues; i++) sizeOf[i] = 5 + sizes.nextInt(36); // 5-40 students
+
+        System.out.println("Small queues: 200K queues of 5-40 students (student objects shared, not counted)");
+        reportFootprint("array, own strategy       ", queues, sizeOf, pool,
+                () -> new StudentPriorityQueue(new DefaultStudentStrategy()), false);
+        reportFootprint("array, shared, trimmed    ", queues, sizeOf, pool,
+                () -> new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE), true);
+        reportFootprint("compact, shared           ", queues, sizeOf, pool,
+                () -> new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, CompactHeapBackend::new), false);
+        reportFootprint("compact, shared, trimmed  ", queues, sizeOf, pool,
+                () -> new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, CompactHeapBackend::new), true);
+
+        System.out.println("Small queues: offer 20 then poll 20, repeated");
+        reportTinyOps("array  ", ArrayHeapBackend::new, pool);
+        reportTinyOps("compact", CompactHeapBackend::new, pool);
+    }
+
+    private static void reportFootprint(String label, int queues, int[] sizeOf, Student[] pool,
+                                        Supplier<StudentPriorityQueue> factory, boolean trim) {
+        long before = usedHeap();
+        StudentPriorityQueue[] all = new StudentPriorityQueue[queues];
+        for (int q = 0; q < queues; q++) {
+            StudentPriorityQueue pq = factory.get();
+            for (int i = 0; i < sizeOf[q]; i++) pq.offer(pool[i]);
+            if (trim) pq.trimToSize();
+            all[q] = pq;
+        }
+        long after = usedHeap();
+        // Exclude the holder array itself: 4 bytes per reference with compressed oops
+        double perQueue = (after - before) / (double) queues - 4;
+        System.out.printf("  %s: %,8.1f bytes/queue%n", label, perQueue);
+        if (all[queues - 1].isEmpty()) System.out.println("unreachable");
+    }
+
+    private static void reportTinyOps(String label, Function<PriorityStrategy, HeapBackend> backend, Student[] pool) {
+        StudentPriorityQueue pq = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, backend);
+        int rounds = 100_000;
+        double opsPerSecond = bestOpsPerSecond(40L * rounds, () -> {
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < 20; i++) pq.offer(pool[(r + i * 7) % pool.length]);
+                for (int i = 0; i < 20; i++) pq.poll();
+            }
+        });
+        System.out.printf("  %s: %,12.0f ops/sec%n", label, opsPerSecond);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // ---- Sliding-window top-K: cost per event as the window grows ----
+
+    static void benchmarkWindow() {
+        int k = 10;
+        int events = 2_000_000;
+        long spacingMillis = 2;     // 66.7 minutes of stream time, so even the 60 minute window fills and slides
+        System.out.printf("Sliding window top-%d: %,d events %d ms apart (%.0f minutes), 1 minute slices%n",
+                k, events, spacingMillis, events * spacingMillis / 60_000.0);
+        Student[] random = createStudents(50_000, 5);
+        // Worst first, so nearly every event beats its slice's current top K and takes the insert path
+        Student[] rising = random.clone();
+        Arrays.sort(rising, DefaultStudentStrategy.INSTANCE.reversed());
+        long[] sink = new long[1];
+
+        for (Student[] pool : new Student[][] {random, rising}) {
+            String stream = pool == random ? "random" : "rising";
+            for (int minutes : new int[] {1, 10, 60}) {
+                long windowMillis = minutes * 60_000L;
+                int[] kept = new int[1];
+                double eventsPerSecond = bestOpsPerSecond(events, () -> {
+                    SlidingWindowTopK window = new SlidingWindowTopK(k, windowMillis, minutes);
+                    int n = 0;
+                    for (int i = 0; i < events; i++) {
+                        if (window.offer(pool[i % pool.length], i * spacingMillis)) n++;
+                    }
+                    kept[0] = n;
+                });
+
+                // Query cost on a full window: merges up to (slices x K) candidates
+                SlidingWindowTopK window = new SlidingWindowTopK(k, windowMillis, minutes);
+                for (int i = 0; i < events; i++) window.offer(pool[i % pool.length], i * spacingMillis);
+                long end = (events - 1) * spacingMillis;
+                int queries = 20_000;
+                double queriesPerSecond = bestOpsPerSecond(queries, () -> {
+                    for (int q = 0; q < queries; q++) sink[0] += window.topK(end).size();
+                });
+                System.out.printf("  %s, %2d minute window: %,12.0f events/sec (%4.1f%% kept), topK %,7.2f us/query%n",
+                        stream, minutes, eventsPerSecond, 100.0 * kept[0] / events, 1e6 / queriesPerSecond);
+            }
+        }
+    }
+
+    // ---- Snapshot reads: 1 writer, many readers ----
+
+    static void benchmarkSnapshots() throws InterruptedException {
+        System.out.println("Snapshot reads: 1 writer (offer+poll on 10K queue), N readers scanning, 1 second each");
+        Student[] pool = createStudents(20_000, 6);
+        // Warmup: let the JIT compile both read paths before anything is reported
+        reportReadersAndWriter(null, 2, pool, false);
+        reportReadersAndWriter(null, 2, pool, true);
+        for (int readers : new int[] {1, 4, 8}) {
+            reportReadersAndWriter("locked toArray copy  ", readers, pool, false);
+            reportReadersAndWriter("snapshot (batch 1000)", readers, pool, true);
+        }
+    }
+
+    private static void reportReadersAndWriter(String label, int readers, Student[] pool, boolean snapshots)
+            throws InterruptedException {
+        StudentPriorityQueue pq = new StudentPriorityQueue();
+        for (int i = 0; i < 10_000; i++) pq.offer(pool[i]);
+        if (snapshots) pq.enableSnapshots(1000);
+
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        long deadline = System.nanoTime() + 1_000_000_000L;
+
+        Thread writer = new Thread(() -> {
+            long n = 0;
+            while (System.nanoTime() < deadline) {
+                for (int i = 0; i < 1000; i++, n++) {
+                    if (snapshots) {
+                        pq.offer(pool[10_000 + (int) (n % 10_000)]);
+                        pq.poll();
+                    } else {
+                        synchronized (pq) {
+                            pq.offer(pool[10_000 + (int) (n % 10_000)]);
+                            pq.poll();
+                        }
+                    }
+                }
+            }
+            writes.set(2 * n);
+        });
+        Thread[] scanners = new Thread[readers];
+        for (int r = 0; r < readers; r++) {
+            scanners[r] = new Thread(() -> {
+                long n = 0, units = 0;
+                while (System.nanoTime() < deadline) {
+                    if (snapshots) {
+                        for (Student s : pq.snapshot()) units += s.getUnits();
+                    } else {
+                        Object[] copy;
+                        synchronized (pq) {
+                            copy = pq.toArray();
+                        }
+                        for (Object o : copy) units += ((Student) o).getUnits();
+                    }
+                    n++;
+                }
+                reads.addAndGet(n + (units == -1 ? 1 : 0));
+            });
+        }
+        writer.start();
+        for (Thread t : scanners) t.start();
+        writer.join();
+        for (Thread t : scanners) t.join();
+        if (label == null) return;
+        System.out.printf("  %s, %d readers: writer %,12d ops/sec, readers %,9d scans/sec%n",
+                label, readers, writes.get(), reads.get());
+    }
+
+    // ---- Allocation per operation (what JMH -prof gc reports as gc.alloc.rate.norm) ----
+
+    static void benchmarkAllocation() {
+        System.out.println("Allocation per operation, steady state (10K queue, then tiny queues filled and drained)");
+        Student[] pool = createStudents(20_000, 7);
+        for (String backend : new String[] {"array", "compact"}) {
+            Function<PriorityStrategy, HeapBackend> factory =
+                    backend.equals("array") ? ArrayHeapBackend::new : CompactHeapBackend::new;
+            StudentPriorityQueue pq = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, factory);
+            for (int i = 0; i < 10_000; i++) pq.offer(pool[i]);
+            UndoManager undo = new UndoManager();
+            long[] sink = new long[1];
+            Consumer<Student> visit = s -> sink[0] += s.getUnits();
+            int n = 200_000;
+
+            reportAllocation(backend + " offer+poll", 2L * n, () -> {
+                for (int i = 0; i < n; i++) {
+                    pq.offer(pool[10_000 + (i % 10_000)]);
+                    pq.poll();
+                }
+            });
+            reportAllocation(backend + " undoable add+poll+undo", 4L * n, () -> {
+                for (int i = 0; i < n; i++) {
+                    undo.executeAdd(pq, pool[10_000 + (i % 10_000)]);
+                    undo.executeRemoveTop(pq);
+                    undo.undo();
+                    undo.undo();
+                }
+            });
+            reportAllocation(backend + " forEachInOrder", pq.size() * 20L, () -> {
+                for (int i = 0; i < 20; i++) pq.forEachInOrder(visit);
+            });
+            reportAllocation(backend + " iterator (copying)", pq.size() * 20L, () -> {
+                for (int i = 0; i < 20; i++) for (Student s : pq) sink[0] += s.getUnits();
+            });
+
+            // Tiny queues fill and drain whole: 40 crosses the compact backend's mode switches
+            for (int k : new int[] {8, 20, 40}) {
+                StudentPriorityQueue tiny = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, factory);
+                int cycles = 20_000;
+                reportAllocation(backend + " fill/drain " + k, 2L * k * cycles, () -> {
+                    for (int c = 0; c < cycles; c++) {
+                        for (int i = 0; i < k; i++) tiny.offer(pool[(c + i * 7) % pool.length]);
+                        while (tiny.poll() != null) sink[0]++;
+                    }
+                });
+            }
+        }
+    }
+
+    private static void reportAllocation(String label, long ops, Runnable body) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) body.run();
+        long before = threads.getThreadAllocatedBytes(id);
+        body.run();
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        System.out.printf("  %-32s %8.3f bytes/op%n", label + ":", allocated / (double) ops);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String which = args.length > 0 ? args[0] : "all";
+        if (which.equals("all") || which.equals("feed")) benchmarkChangeFeed();
+        if (which.equals("all") || which.equals("backends")) benchmarkBackends();
+        if (which.equals("all") || which.equals("footprint")) benchmarkFootprint();
+        if (which.equals("all") || which.equals("window")) benchmarkWindow();
+        if (which.equals("all") || which.equals("snapshot")) benchmarkSnapshots();
+        if (which.equals("all") || which.equals("alloc")) benchmarkAllocation();
+    }
+}
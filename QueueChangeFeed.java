@@ -0,0 +1,275 @@
+/************************************
+ * Ivy Huynh
+ * CS635-M1-Priority Queue Assignment
+ * **********************************
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Observer pattern implementation for watching a priority queue change.
+ * The queue records events into a lock-free ring on its hot path; batches are
+ * drained and delivered on a separate executor, so listeners never run inside
+ * siftUp/siftDown and a slow listener cannot stall offer/poll. An exception thrown by a
+ * listener goes to the delivery thread's uncaught exception handler and does not stop
+ * delivery to it or to any other listener.
+ */
+
+/** Listener interface: receives coalesced batches of queue events, in order. */
+interface QueueListener {
+    void onEvents(List<QueueEvent> batch);
+}
+
+/** An immutable record of one change to a queue. */
+final class QueueEvent {
+    /**
+     * EVENTS_DROPPED marks a gap: ADDED/REMOVED events were lost because delivery fell
+     * behind, so a listener tracking contents should resync from the queue itself.
+     * HEAD_CHANGED is never lost; the latest head is always delivered.
+     */
+    enum Type { ADDED, REMOVED, HEAD_CHANGED, EVENTS_DROPPED }
+
+    private final Type type;
+    private final Student student;
+
+    QueueEvent(Type type, Student student) {
+        this.type = type;
+        this.student = student;
+    }
+
+    public Type getType() { return type; }
+
+    /**
+     * The student added or removed, or the new head (null when the queue became empty).
+     * Always null for EVENTS_DROPPED.
+     */
+    public Student getStudent() { return student; }
+
+    @Override
+    public String toString() {
+        if (type == Type.EVENTS_DROPPED) return type.toString();
+        return type + "(" + (student != null ? student.getRedId() : "empty") + ")";
+    }
+}
+
+/**
+ * Single-producer ring buffer plus batched delivery for one queue.
+ * The producer is the (single) thread mutating the queue; the consumer is the delivery executor.
+ *
+ * ADDED/REMOVED go through the ring. The head does not: it lives in one always-overwritten
+ * slot, and a batch ends with HEAD_CHANGED whenever the head differs from the last one
+ * delivered, since earlier heads are already stale. If the ring fills faster than it drains,
+ * new add/remove events are dropped and counted rather than blocking the writer, and the
+ * next batch carries an EVENTS_DROPPED marker; the head is still delivered.
+ */
+final class QueueChangeFeed {
+    static final int DEFAULT_CAPACITY = 1 << 14;
+
+    /**
+     * How long a drain waits for more events before handing the executor back.
+     * Without it a busy writer triggers one executor hand-off per handful of events.
+     */
+    private static final long LINGER_NANOS = 50_000;
+
+    /**
+     * Longest a drain keeps the executor while its ring keeps refilling. Past this it
+     * re-submits itself to the back of the executor's queue, so one busy queue cannot
+     * starve the others sharing the default delivery thread.
+     */
+    private static final long TURN_NANOS = 1_000_000;
+
+    /** Shared delivery thread for every queue that does not supply its own executor */
+    private static final class DefaultExecutorHolder {
+        static final ExecutorService INSTANCE = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "queue-change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private final QueueEvent.Type[] types;
+    private final Student[] students;
+    private final int mask;
+
+    /**
+     * Next slot the producer writes. Published with a volatile store, not a release store:
+     * the drainScheduled read that follows must not be reordered before it (see drain).
+     */
+    private final AtomicLong tail = new AtomicLong();
+    /** Next slot the consumer reads; published with a release store */
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Latest head, overwritten by every HEAD_CHANGED; headPending is set after each write */
+    private volatile Student latestHead;
+    private volatile boolean headPending;
+
+    // Consumer-only state: what listeners have already been told
+    private Student deliveredHead;
+    private boolean headDelivered;
+    private long droppedReported;
+
+    /** Producer's last view of head; re-read only when the ring looks full, to avoid cache-line traffic */
+    private long cachedHead;
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final List<QueueListener> listeners = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+    /** Created once so scheduling a drain does not allocate a new Runnable per hand-off */
+    private final Runnable drainTask = this::drain;
+
+    QueueChangeFeed() {
+        this(DEFAULT_CAPACITY, DefaultExecutorHolder.INSTANCE);
+    }
+
+    /**
+     * @param capacity Ring size, rounded up to a power of two
+     * @param executor Runs delivery; listeners are always invoked from this executor
+     */
+    QueueChangeFeed(int capacity, Executor executor) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.types = new QueueEvent.Type[size];
+        this.students = new Student[size];
+        this.mask = size - 1;
+        this.executor = Objects.requireNonNull(executor, "Executor must not be null");
+    }
+
+    void addListener(QueueListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener must not be null"));
+    }
+
+    /** @return true if no listeners remain */
+    boolean removeListener(QueueListener listener) {
+        listeners.remove(listener);
+        return listeners.isEmpty();
+    }
+
+    /** Returns how many events were dropped because the ring was full. */
+    long getDroppedEventCount() {
+        return dropped.get();
+    }
+
+    // ---- Producer side (queue's hot path) ----
+
+    /**
+     * Records an event without allocating or blocking.
+     * HEAD_CHANGED overwrites the head slot and can never be dropped.
+     * Time Complexity: O(1)
+     */
+    void publish(QueueEvent.Type type, Student student) {
+        if (type == QueueEvent.Type.HEAD_CHANGED) {
+            latestHead = student;
+            headPending = true;
+        } else {
+            long t = tail.get();
+            if (t - cachedHead > mask) cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                dropped.lazySet(dropped.get() + 1);
+            } else {
+                int slot = (int) t & mask;
+                types[slot] = type;
+                students[slot] = student;
+                tail.set(t + 1);
+            }
+        }
+        if (!drainScheduled.get() && drainScheduled.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    // ---- Consumer side (delivery executor) ----
+
+    private void drain() {
+        try {
+            long turnStart = System.nanoTime();
+            while (true) {
+                List<QueueEvent> batch = takeBatch();
+                if (!batch.isEmpty()) {
+                    for (QueueListener listener : listeners) deliver(listener, batch);
+                }
+                if (!hasPending()) LockSupport.parkNanos(LINGER_NANOS);
+                if (hasPending()) {
+                    if (System.nanoTime() - turnStart < TURN_NANOS) continue;
+                    // Turn used up: keep the flag set and queue behind other feeds' drains
+                    executor.execute(drainTask);
+                    return;
+                }
+
+                drainScheduled.set(false);
+                // A publish may have raced with the flag reset; reclaim the drain if so.
+                // Both sides store then load with volatile semantics (tail or headPending,
+                // then the flag, in publish; the flag then both here), so at least one of
+                // them sees the other's store.
+                if (!hasPending() || !drainScheduled.compareAndSet(false, true)) return;
+            }
+        } catch (Throwable t) {
+            // Never leave the flag set with no drain running, or delivery stops for good
+            drainScheduled.set(false);
+            throw t;
+        }
+    }
+
+    /** True if the ring holds events, the head slot was written, or drops are unreported */
+    private boolean hasPending() {
+        return tail.get() != head.get() || headPending || dropped.get() != droppedReported;
+    }
+
+    /** A failing listener is reported and skipped; the others still get the batch */
+    private static void deliver(QueueListener listener, List<QueueEvent> batch) {
+        try {
+            listener.onEvents(batch);
+        } catch (RuntimeException e) {
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, e);
+        }
+    }
+
+    /**
+     * Copies everything currently in the ring into an immutable batch, then appends
+     * EVENTS_DROPPED if anything was lost since the last batch, and HEAD_CHANGED if the
+     * head differs from the one listeners last saw.
+     */
+    private List<QueueEvent> takeBatch() {
+        long h = head.get();
+        long t = tail.get();
+        long lost = dropped.get();
+        boolean headWritten = headPending;
+        if (h == t && lost == droppedReported && !headWritten) return Collections.emptyList();
+
+        List<QueueEvent> batch = new ArrayList<>((int) (t - h) + 2);
+        for (long i = h; i < t; i++) {
+            int slot = (int) i & mask;
+            batch.add(new QueueEvent(types[slot], students[slot]));
+            students[slot] = null; // don't keep removed students reachable from the ring
+        }
+        head.lazySet(t);
+
+        if (lost != droppedReported) {
+            droppedReported = lost;
+            batch.add(new QueueEvent(QueueEvent.Type.EVENTS_DROPPED, null));
+        }
+        if (headWritten) {
+            // Clear before reading, so a head written meanwhile sets the flag again
+            headPending = false;
+            Student current = latestHead;
+            if (!headDelivered || current != deliveredHead) {
+                headDelivered = true;
+                deliveredHead = current;
+                batch.add(new QueueEvent(QueueEvent.Type.HEAD_CHANGED, current));
+            }
+        }
+        return batch.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(batch);
+    }
+}
@@ -0,0 +1,105 @@
+/************************************
+ * Ivy Huynh
+ * CS635-M1-Priority Queue Assignment
+ * **********************************
+ */
+
+import java.util.*;
+
+/**
+ * An immutable, versioned view of a StudentPriorityQueue's contents.
+ * The writer publishes a new snapshot every few writes (see
+ * StudentPriorityQueue.enableSnapshots); any number of reader threads can then
+ * iterate it without locking and without copying, while the writer keeps going.
+ *
+ * iterator() walks the students in storage order. inPriorityOrder() sorts once per
+ * snapshot and every later reader of the same version reuses that result.
+ */
+public final class QueueSnapshot implements Iterable<Student> {
+
+    /** Published students in backend storage order; never modified after construction */
+    private final Object[] elements;
+    private final long version;
+    private final PriorityStrategy strategy;
+
+    /** Priority-ordered view, built on first use; racing readers compute identical results */
+    private volatile List<Student> ordered;
+
+    QueueSnapshot(Object[] elements, long version, PriorityStrategy strategy) {
+        this.elements = elements;
+        this.version = version;
+        this.strategy = strategy;
+    }
+
+    /** Returns the number of students in this snapshot. */
+    public int size() {
+        return elements.length;
+    }
+
+    /** Returns how many writes the queue had seen, since snapshots were enabled, when this was published. */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Returns the highest priority student in this snapshot, or null if it is empty.
+     * Time Complexity: O(1) once inPriorityOrder() has run, otherwise an O(N) scan
+     */
+    public Student peek() {
+        List<Student> sorted = ordered;
+        if (sorted != null) return sorted.isEmpty() ? null : sorted.get(0);
+        Student best = null;
+        for (Object o : elements) {
+            Student s = (Student) o;
+            if (best == null || strategy.compare(s, best) < 0) best = s;
+        }
+        return best;
+    }
+
+    /**
+     * Returns the students in descending priority order as an unmodifiable list.
+     * Time Complexity: O(N log N) for the first caller of a snapshot, O(1) afterwards
+     */
+    public List<Student> inPriorityOrder() {
+        List<Student> result = ordered;
+        if (result == null) {
+            Student[] sorted = Arrays.copyOf(elements, elements.length, Student[].class);
+            Arrays.sort(sorted, strategy);
+            result = Collections.unmodifiableList(Arrays.asList(sorted));
+            ordered = result;
+        }
+        return result;
+    }
+
+    /**
+     * Iterates the students in storage order without copying.
+     * @return Iterator over the snapshot; remove() is not supported
+     */
+    @Override
+    public Iterator<Student> iterator() {
+        return new Iterator<Student>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < elements.length;
+            }
+
+            @Override
+            public Student next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return (Student) elements[index++];
+            }
+        };
+    }
+
+    /** Returns a new array containing the snapshot's students in storage order. */
+    public Object[] toArray() {
+        return elements.clone();
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(elements);
+    }
+}
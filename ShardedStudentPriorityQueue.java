@@ -0,0 +1,210 @@
+/************************************
+ * Ivy Huynh
+ * CS635-M1-Priority Queue Assignment
+ * **********************************
+ */
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * A partitioned priority queue that spreads students over K independent shards.
+ * Students are assigned to a shard by hashing their Red ID, so every shard holds a
+ * disjoint subset and can live on its own thread or node (see StudentShards.java).
+ *
+ * The global order is recovered with a tournament (winner) tree over the cached top of
+ * each shard: after a shard changes only its leaf-to-root path is replayed, so
+ * peek is O(1) and offer/poll/remove touch O(log K) tree nodes plus one shard.
+ *
+ * Like StudentPriorityQueue, this class is not thread-safe; it expects a single
+ * coordinating thread even when the shards themselves run elsewhere.
+ */
+public class ShardedStudentPriorityQueue extends AbstractQueue<Student> implements AutoCloseable {
+
+    /** Marks an empty tournament slot */
+    private static final int NONE = -1;
+
+    private final PriorityStrategy strategy;
+    private final StudentShard[] shards;
+
+    /** Cached top of each shard, so tournament replays never call into a shard */
+    private final Student[] tops;
+
+    /** Tournament tree: tree[1] is the root, leaves start at `leaves`; values are shard indices */
+    private final int[] tree;
+    private final int leaves;
+
+    private int size;
+
+    /**
+     * Creates a sharded queue with in-process shards and the default strategy.
+     * @param shardCount Number of shards (K), must be positive
+     */
+    public ShardedStudentPriorityQueue(int shardCount) {
+        this(shardCount, DefaultStudentStrategy.INSTANCE);
+    }
+
+    /**
+     * Creates a sharded queue with in-process shards.
+     * @param shardCount Number of shards (K), must be positive
+     * @param strategy The priority strategy used by every shard and by the tournament
+     */
+    public ShardedStudentPriorityQueue(int shardCount, PriorityStrategy strategy) {
+        this(shardCount, strategy, i -> new InProcessShard(strategy));
+    }
+
+    /**
+     * Creates a sharded queue with a caller-supplied transport per shard.
+     * Every shard must order students with the same strategy passed here.
+     * @param shardCount Number of shards (K), must be positive
+     * @param strategy The priority strategy used to compare shard tops
+     * @param shardFactory Creates the transport for shard i
+     */
+    ShardedStudentPriorityQueue(int shardCount, PriorityStrategy strategy, IntFunction<StudentShard> shardFactory) {
+        if (shardCount <= 0) throw new IllegalArgumentException("shardCount must be positive");
+        this.strategy = Objects.requireNonNull(strategy, "Strategy must not be null");
+        Objects.requireNonNull(shardFactory, "Shard factory must not be null");
+
+        this.shards = new StudentShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = Objects.requireNonNull(shardFactory.apply(i), "Shard must not be null");
+        }
+        this.tops = new Student[shardCount];
+
+        int p = 1;
+        while (p < shardCount) p <<= 1;
+        this.leaves = p;
+        this.tree = new int[2 * p];
+        Arrays.fill(tree, NONE);
+    }
+
+    /**
+     * Creates a sharded queue whose shards each run behind a loopback socket on their own thread.
+     * @param shardCount Number of shards (K), must be positive
+     * @param strategy The priority strategy used by every shard
+     * @return A queue that must be closed to stop the shard threads
+     */
+    public static ShardedStudentPriorityQueue overLoopback(int shardCount, PriorityStrategy strategy) {
+        return new ShardedStudentPriorityQueue(shardCount, strategy,
+                i -> new LoopbackSocketShard(strategy, "student-shard-" + i));
+    }
+
+    /** Returns the number of shards (K). */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /** Returns the shard a student is routed to, based on its Red ID. */
+    int shardOf(Student student) {
+        return Math.floorMod(student.getRedId().hashCode(), shards.length);
+    }
+
+    // ---- Core Queue Operations ----
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves, but does not remove, the highest priority student across all shards.
+     * Time Complexity: O(1)
+     */
+    @Override
+    public Student peek() {
+        int winner = tree[1];
+        return winner == NONE ? null : tops[winner];
+    }
+
+    /**
+     * Adds a student to its shard.
+     * The shard's new top is known locally (old top vs. new student), so no extra round trip is needed.
+     * Time Complexity: O(log N/K) in the shard + O(log K) tournament replay
+     */
+    @Override
+    public boolean offer(Student student) {
+        Objects.requireNonNull(student, "Student must not be null");
+        int s = shardOf(student);
+        shards[s].offer(student);
+        size++;
+        if (tops[s] == null || strategy.compare(student, tops[s]) < 0) {
+            tops[s] = student;
+            replay(s);
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the highest priority student across all shards.
+     * Remote shards report their new top with the poll, so the refresh costs no extra round trip.
+     * Time Complexity: O(log N/K) in the winning shard + O(log K) tournament replay
+     */
+    @Override
+    public Student poll() {
+        int winner = tree[1];
+        if (winner == NONE) return null;
+        Student top = shards[winner].poll();
+        size--;
+        refresh(winner);
+        return top;
+    }
+
+    /**
+     * Removes a specific student from its shard.
+     * Only the owning shard is searched, so the O(N) scan shrinks to O(N/K).
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Student)) return false;
+        Student student = (Student) o;
+        int s = shardOf(student);
+        if (!shards[s].remove(student)) return false;
+        size--;
+        refresh(s);
+        return true;
+    }
+
+    // ---- Tournament Tree ----
+
+    /** Re-reads a shard's top and replays its path to the root */
+    private void refresh(int shard) {
+        tops[shard] = shards[shard].peek();
+        replay(shard);
+    }
+
+    /** Replays matches from the shard's leaf up to the root: O(log K) comparisons */
+    private void replay(int shard) {
+        int node = leaves + shard;
+        tree[node] = tops[shard] == null ? NONE : shard;
+        for (node >>= 1; node >= 1; node >>= 1) {
+            tree[node] = winner(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /** Returns the shard whose top has higher priority, treating NONE as an automatic loss */
+    private int winner(int a, int b) {
+        if (a == NONE) return b;
+        if (b == NONE) return a;
+        return strategy.compare(tops[a], tops[b]) <= 0 ? a : b;
+    }
+
+    // ---- Collection Integration Methods ----
+
+    /**
+     * Returns an iterator in descending priority order over a snapshot of all shards.
+     * Non-destructive; costs one snapshot per shard plus an O(N log N) sort.
+     */
+    @Override
+    public Iterator<Student> iterator() {
+        List<Student> all = new ArrayList<>(size);
+        for (StudentShard shard : shards) all.addAll(shard.snapshot());
+        all.sort(strategy);
+        return Collections.unmodifiableList(all).iterator();
+    }
+
+    /** Closes every shard transport, stopping any shard threads. */
+    @Override
+    public void close() {
+        for (StudentShard shard : shards) shard.close();
+    }
+}
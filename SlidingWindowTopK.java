@@ -0,0 +1,140 @@
+/************************************
+ * Ivy Huynh
+ * CS635-M1-Priority Queue Assignment
+ * **********************************
+ */
+
+import java.util.*;
+
+/**
+ * Top-K students over a sliding time window of a stream of Student records.
+ * The window is split into fixed time slices. Each slice keeps only its own best K
+ * distinct students (by Red ID) in a bounded min-heap, built on StudentPriorityQueue
+ * with the strategy reversed, so:
+ * - each event costs O(log K), or O(K) when it replaces that student's earlier record;
+ *   either way it is independent of how many records the window has seen
+ * - expiry drops a whole slice at once instead of calling remove(Object) per record
+ * - a query merges at most (slices x K) candidates
+ *
+ * No record that could be in the window's top K is ever discarded: a student outside
+ * its slice's top K has K better distinct students in that same slice.
+ *
+ * Timestamps are supplied by the caller (e.g. event time in milliseconds) and the
+ * window only moves forward; records older than the window are ignored.
+ */
+public class SlidingWindowTopK {
+
+    /** One time slice: its best K distinct students, worst at the head of the queue */
+    private static final class Slice {
+        final long index;
+        final StudentPriorityQueue worstFirst;
+        final Map<String, Student> byRedId = new HashMap<>();
+
+        Slice(long index, PriorityStrategy reversed) {
+            this.index = index;
+            this.worstFirst = new StudentPriorityQueue(reversed, CompactHeapBackend::new);
+        }
+    }
+
+    private final int k;
+    private final long sliceMillis;
+    private final PriorityStrategy strategy;
+    private final PriorityStrategy reversed;
+
+    /** Ring of slices; slot i holds the slice whose index is congruent to i */
+    private final Slice[] slices;
+    private long latestSlice = Long.MIN_VALUE;
+
+    /**
+     * Creates a windowed top-K using the default strategy.
+     * @param k Number of students to report
+     * @param windowMillis Window length; must be a multiple of sliceCount
+     * @param sliceCount Number of slices the window is split into (expiry granularity)
+     */
+    public SlidingWindowTopK(int k, long windowMillis, int sliceCount) {
+        this(k, windowMillis, sliceCount, DefaultStudentStrategy.INSTANCE);
+    }
+
+    /**
+     * Creates a windowed top-K with a custom strategy.
+     * @param k Number of students to report
+     * @param windowMillis Window length; must be a multiple of sliceCount
+     * @param sliceCount Number of slices the window is split into (expiry granularity)
+     * @param strategy The priority strategy that defines "top"
+     */
+    public SlidingWindowTopK(int k, long windowMillis, int sliceCount, PriorityStrategy strategy) {
+        if (k <= 0) throw new IllegalArgumentException("k must be positive");
+        if (sliceCount <= 0) throw new IllegalArgumentException("sliceCount must be positive");
+        if (windowMillis <= 0 || windowMillis % sliceCount != 0) {
+            throw new IllegalArgumentException("windowMillis must be a positive multiple of sliceCount");
+        }
+        this.k = k;
+        this.sliceMillis = windowMillis / sliceCount;
+        this.strategy = Objects.requireNonNull(strategy, "Strategy must not be null");
+        this.reversed = (a, b) -> strategy.compare(b, a);
+        this.slices = new Slice[sliceCount];
+    }
+
+    /**
+     * Records a student event.
+     * Time Complexity: O(log K), or O(K) when it improves on the student's record in the same slice
+     * @param student The student record
+     * @param timestampMillis When the record was produced
+     * @return true if the record was kept as a top-K candidate of its slice
+     */
+    public boolean offer(Student student, long timestampMillis) {
+        Objects.requireNonNull(student, "Student must not be null");
+        long index = Math.floorDiv(timestampMillis, sliceMillis);
+        advanceTo(index);
+        if (index <= latestSlice - slices.length) return false; // already outside the window
+
+        int slot = (int) Math.floorMod(index, (long) slices.length);
+        Slice slice = slices[slot];
+        if (slice == null || slice.index != index) {
+            slice = new Slice(index, reversed);
+            slices[slot] = slice;
+        }
+
+        Student previous = slice.byRedId.get(student.getRedId());
+        if (previous != null) {
+            if (strategy.compare(student, previous) >= 0) return false;
+            slice.worstFirst.remove(previous);
+        } else if (slice.worstFirst.size() == k) {
+            if (strategy.compare(student, slice.worstFirst.peek()) >= 0) return false;
+            slice.byRedId.remove(slice.worstFirst.poll().getRedId());
+        }
+        slice.worstFirst.offer(student);
+        slice.byRedId.put(student.getRedId(), student);
+        return true;
+    }
+
+    /**
+     * Returns the best K distinct students in the window ending at the given time,
+     * highest priority first. Each student appears once, with their best record.
+     * Time Complexity: O(S·K log(S·K)) for S slices, independent of the event count
+     * @param nowMillis The end of the window
+     */
+    public List<Student> topK(long nowMillis) {
+        advanceTo(Math.floorDiv(nowMillis, sliceMillis));
+
+        Map<String, Student> best = new HashMap<>();
+        for (Slice slice : slices) {
+            if (slice == null || slice.index <= latestSlice - slices.length) continue;
+            for (Student s : slice.byRedId.values()) {
+                best.merge(s.getRedId(), s, (a, b) -> strategy.compare(a, b) <= 0 ? a : b);
+            }
+        }
+        List<Student> ranked = new ArrayList<>(best.values());
+        ranked.sort(strategy);
+        return ranked.size() > k ? new ArrayList<>(ranked.subList(0, k)) : ranked;
+    }
+
+    /** Moves the window forward; slices that fall out are dropped whole, O(1) each */
+    private void advanceTo(long index) {
+        if (index <= latestSlice) return;
+        latestSlice = index;
+        for (int i = 0; i < slices.length; i++) {
+            if (slices[i] != null && slices[i].index <= latestSlice - slices.length) slices[i] = null;
+        }
+    }
+}
@@ -4,13 +4,19 @@
  * **********************************
  */
 
+import java.io.PrintStream;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * A max-heap based priority queue for Student objects that integrates with Java Collections.
  * This implementation extends AbstractQueue and incorporates multiple design patterns:
  * - Strategy Pattern: For flexible ordering mechanisms
- * - Iterator Pattern: For non-destructive iteration
+ * - Pluggable heap backends: array binary heap by default, pairing heap for fast meld (see HeapBackends)
+ * - Iterator Pattern: For non-destructive iteration (forEachInOrder walks without copying)
+ * - Observer Pattern: For batched change notifications (see QueueChangeFeed)
+ * - Copy-on-write snapshots: For lock-free reads from other threads (see QueueSnapshot)
  * - Integration with Java Collections Framework
  *
  * The queue maintains O(log N) insertion and removal while providing comprehensive
@@ -18,17 +24,37 @@ import java.util.*;
  */
 public class StudentPriorityQueue extends AbstractQueue<Student> {
 
-    /** Underlying max-heap storage using ArrayList for O(1) access and dynamic resizing */
-    private final ArrayList<Student> heap = new ArrayList<>();
+    /** Underlying max-heap storage; an ArrayHeapBackend unless another backend was requested */
+    private final HeapBackend heap;
 
     /** Strategy pattern implementation for flexible ordering */
     private final PriorityStrategy strategy;
 
+    /** Change feed for subscribers; null while nobody is subscribed, so the hot path pays one null check */
+    private QueueChangeFeed feed;
+
+    /** Snapshot publishing state; null until enableSnapshots, so other queues pay one reference */
+    private volatile SnapshotState snapshots;
+
+    /** Created by enableSnapshots; written only by the queue's writing thread */
+    private static final class SnapshotState {
+        /** Writes between snapshot publications */
+        final int batch;
+        int unpublishedWrites;
+        long version;
+        /** Latest published snapshot for reader threads */
+        volatile QueueSnapshot published;
+
+        SnapshotState(int batch) {
+            this.batch = batch;
+        }
+    }
+
     /**
      * Default constructor using the default prioritization strategy.
      */
     public StudentPriorityQueue() {
-        this(new DefaultStudentStrategy());
+        this(DefaultStudentStrategy.INSTANCE);
     }
 
     /**
@@ -36,7 +62,17 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
      * @param strategy The priority strategy to use for ordering students
      */
     public StudentPriorityQueue(PriorityStrategy strategy) {
+        this(strategy, ArrayHeapBackend::new);
+    }
+
+    /**
+     * Constructor with custom strategy and heap backend.
+     * @param strategy The priority strategy to use for ordering students
+     * @param backend Creates the heap storage for the given strategy, e.g. PairingHeapBackend::new
+     */
+    public StudentPriorityQueue(PriorityStrategy strategy, Function<PriorityStrategy, HeapBackend> backend) {
         this.strategy = Objects.requireNonNull(strategy, "Strategy must not be null");
+        this.heap = Objects.requireNonNull(backend, "Backend must not be null").apply(strategy);
     }
 
     // ... [rest of the StudentPriorityQueue class remains the same] ...
@@ -55,7 +91,7 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
      */
     @Override
     public Student peek() {
-        return heap.isEmpty() ? null : heap.get(0);
+        return heap.peek();
     }
 
     /**
@@ -67,8 +103,14 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
     @Override
     public boolean offer(Student student) {
         Objects.requireNonNull(student, "Student must not be null");
-        heap.add(student);
-        siftUp(heap.size() - 1);
+        heap.offer(student);
+
+        QueueChangeFeed f = feed;
+        if (f != null) {
+            f.publish(QueueEvent.Type.ADDED, student);
+            if (heap.peek() == student) f.publish(QueueEvent.Type.HEAD_CHANGED, student);
+        }
+        afterWrite();
         return true;
     }
 
@@ -79,68 +121,23 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
      */
     @Override
     public Student poll() {
-        if (heap.isEmpty()) return null;
-        Student top = heap.get(0);
-        Student last = heap.remove(heap.size() - 1);
-        if (!heap.isEmpty()) {
-            heap.set(0, last);
-            siftDown(0);
-        }
-        return top;
-    }
-
-    // ---- Heap Helper Methods ----
-
-    private int parent(int i) { return (i - 1) / 2; }
-    private int left(int i) { return 2 * i + 1; }
-    private int right(int i) { return 2 * i + 2; }
-
-    /** Compares two elements for max-heap ordering using the current strategy */
-    private boolean greater(int i, int j) {
-        return strategy.compare(heap.get(i), heap.get(j)) > 0;
-    }
+        Student top = heap.poll();
+        if (top == null) return null;
 
-    private void swap(int i, int j) {
-        Student temp = heap.get(i);
-        heap.set(i, heap.get(j));
-        heap.set(j, temp);
-    }
-
-    /** Restores heap property after insertion by moving element up */
-    private void siftUp(int i) {
-        while (i > 0) {
-            int parent = parent(i);
-            if (greater(i, parent)) {
-                swap(i, parent);
-                i = parent;
-            } else {
-                break;
-            }
-        }
-    }
-
-    /** Restores heap property after removal by moving element down */
-    private void siftDown(int i) {
-        int size = heap.size();
-        while (true) {
-            int left = left(i);
-            int right = right(i);
-            int largest = i;
-
-            if (left < size && greater(left, largest)) largest = left;
-            if (right < size && greater(right, largest)) largest = right;
-
-            if (largest == i) break;
-
-            swap(i, largest);
-            i = largest;
+        QueueChangeFeed f = feed;
+        if (f != null) {
+            f.publish(QueueEvent.Type.REMOVED, top);
+            f.publish(QueueEvent.Type.HEAD_CHANGED, peek());
         }
+        afterWrite();
+        return top;
     }
 
     // ---- Collection Integration Methods ----
 
     /**
      * Returns an array containing all students in heap order.
+     * (Storage order of the backend; level order for the default array heap.)
      * @return Array of students in current heap order
      */
     @Override
@@ -150,11 +147,13 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
 
     /**
      * Returns a string representation of the queue in heap order.
+     * Reuses the published snapshot instead of copying when it is up to date.
      * @return String representation of the queue
      */
     @Override
     public String toString() {
-        return heap.toString();
+        QueueSnapshot current = currentSnapshot();
+        return current != null ? current.toString() : Arrays.toString(heap.toArray());
     }
 
     /**
@@ -167,25 +166,144 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
     public boolean remove(Object o) {
         if (!(o instanceof Student)) return false;
 
-        int index = heap.indexOf(o);
-        if (index == -1) return false;
+        Student oldHead = heap.peek();
+        Student removed = heap.remove(o);
+        if (removed == null) return false;
 
-        int lastIndex = heap.size() - 1;
-        if (index == lastIndex) {
-            heap.remove(lastIndex);
-            return true;
+        QueueChangeFeed f = feed;
+        if (f != null) {
+            f.publish(QueueEvent.Type.REMOVED, removed);
+            if (removed == oldHead) f.publish(QueueEvent.Type.HEAD_CHANGED, peek());
         }
+        afterWrite();
+        return true;
+    }
 
-        // Swap with last element and remove
-        swap(index, lastIndex);
-        heap.remove(lastIndex);
+    /**
+     * Releases spare capacity in the heap storage.
+     * Useful after bulk removals, or once a long-lived queue has been filled.
+     */
+    public void trimToSize() {
+        heap.trimToSize();
+    }
 
-        // Restore heap property
-        if (index < heap.size()) {
-            siftUp(index);
-            siftDown(index);
+    /**
+     * Moves every student from another queue into this one, leaving the other queue empty.
+     * When both queues use PairingHeapBackend this is O(1); the array backend re-heapifies
+     * in O(N + M) for large melds instead of M separate offers.
+     * Subscribers see one HEAD_CHANGED per queue whose head moved, not per-student events.
+     * @param other A queue ordered by an equal strategy (e.g. the same INSTANCE)
+     * @throws IllegalArgumentException if other is this queue or its strategy is not equal to this one's
+     */
+    public void meld(StudentPriorityQueue other) {
+        Objects.requireNonNull(other, "Queue must not be null");
+        if (other == this) throw new IllegalArgumentException("Cannot meld a queue into itself");
+        // Not getClass(): lambdas from one source location share a class but may order differently
+        if (!other.strategy.equals(strategy)) {
+            throw new IllegalArgumentException("Cannot meld queues with different strategies");
         }
-        return true;
+        if (other.isEmpty()) return;
+
+        Student oldHead = heap.peek();
+        heap.meld(other.heap);
+
+        QueueChangeFeed f = feed;
+        if (f != null && heap.peek() != oldHead) f.publish(QueueEvent.Type.HEAD_CHANGED, heap.peek());
+        QueueChangeFeed g = other.feed;
+        if (g != null) g.publish(QueueEvent.Type.HEAD_CHANGED, null);
+        afterWrite();
+        other.afterWrite();
+    }
+
+    // ---- Observer Pattern: Change Feed ----
+
+    /**
+     * Subscribes a listener to head-changed, element-added and element-removed events.
+     * Events are batched and delivered on a shared background thread, never inside offer/poll,
+     * so listeners must not assume the queue still looks the way an event describes.
+     * @param listener The listener to notify
+     */
+    public void subscribe(QueueListener listener) {
+        Objects.requireNonNull(listener, "Listener must not be null");
+        if (feed == null) feed = new QueueChangeFeed();
+        feed.addListener(listener);
+    }
+
+    /**
+     * Unsubscribes a listener. Once the last listener leaves, the queue stops recording events.
+     * @param listener The listener to remove
+     */
+    public void unsubscribe(QueueListener listener) {
+        if (feed != null && feed.removeListener(listener)) feed = null;
+    }
+
+    /**
+     * Returns how many change events were dropped because subscribers fell behind and the
+     * feed's ring was full. A writer that outpaces delivery loses events rather than blocking,
+     * so listeners that need every event should compare this against what they received, or
+     * resync when a batch carries EVENTS_DROPPED. Head changes are never dropped. Counts since the current subscription began; 0 while nobody is subscribed.
+     */
+    public long getDroppedEventCount() {
+        QueueChangeFeed f = feed;
+        return f == null ? 0 : f.getDroppedEventCount();
+    }
+
+    // ---- Copy-on-Write Snapshots ----
+
+    /**
+     * Starts publishing immutable snapshots for reader threads, one every batchSize writes.
+     * Readers then call snapshot() without locking; each publication costs the writer one
+     * O(N) copy, so larger batches trade freshness for write throughput.
+     * @param batchSize Writes per publication, at least 1
+     */
+    public void enableSnapshots(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+        SnapshotState state = new SnapshotState(batchSize);
+        SnapshotState previous = snapshots;
+        if (previous != null) state.version = previous.version;
+        publish(state);
+        snapshots = state;
+    }
+
+    /**
+     * Publishes the current contents immediately, regardless of the batch size.
+     * Call from the writing thread, e.g. after a burst of writes.
+     */
+    public void publishSnapshot() {
+        SnapshotState state = snapshots;
+        if (state == null) throw new IllegalStateException("Snapshots are not enabled");
+        publish(state);
+    }
+
+    /**
+     * Returns the latest published snapshot. Safe to call from any thread.
+     * It may be up to batchSize - 1 writes behind the queue itself.
+     * Time Complexity: O(1), no copy
+     * @throws IllegalStateException if snapshots have not been enabled
+     */
+    public QueueSnapshot snapshot() {
+        SnapshotState state = snapshots;
+        if (state == null) throw new IllegalStateException("Snapshots are not enabled");
+        return state.published;
+    }
+
+    private void publish(SnapshotState state) {
+        state.unpublishedWrites = 0;
+        state.published = new QueueSnapshot(heap.toArray(), state.version, strategy);
+    }
+
+    /** Counts a write and publishes a new snapshot once a batch is complete; one null check otherwise */
+    private void afterWrite() {
+        SnapshotState state = snapshots;
+        if (state == null) return;
+        state.version++;
+        if (++state.unpublishedWrites >= state.batch) publish(state);
+    }
+
+    /** Returns the published snapshot if no writes have happened since, otherwise null */
+    private QueueSnapshot currentSnapshot() {
+        SnapshotState state = snapshots;
+        return state != null && state.unpublishedWrites == 0 ? state.published : null;
     }
 
     // ---- Iterator Pattern Implementation ----
@@ -193,12 +311,28 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
     /**
      * Returns an iterator that provides elements in descending priority order.
      * This implementation is NON-DESTRUCTIVE and does not modify the original queue.
-     * The iterator works by maintaining a copy of the heap and performing heapsort.
+     * The iterator works by maintaining a copy of the heap and performing heapsort,
+     * unless an up-to-date snapshot is published, whose cached priority order is reused.
      * @return Iterator over students in priority order
      */
     @Override
     public Iterator<Student> iterator() {
-        return new PriorityOrderIterator();
+        QueueSnapshot current = currentSnapshot();
+        return current != null ? current.inPriorityOrder().iterator() : new PriorityOrderIterator();
+    }
+
+    /**
+     * Visits every student in descending priority order without copying the queue.
+     * With the array and compact backends the walk reuses its scratch space, so once the
+     * queue has stopped growing it allocates nothing. The queue is left unchanged.
+     * Time Complexity: O(N log N)
+     * @param action Called once per student; must not modify the queue
+     * @throws ConcurrentModificationException if action offers, polls, removes or melds on this
+     *         queue, with any backend; the offending call throws and the queue is left unchanged
+     */
+    public void forEachInOrder(Consumer<? super Student> action) {
+        Objects.requireNonNull(action, "Action must not be null");
+        heap.forEachInOrder(action);
     }
 
     /**
@@ -211,7 +345,8 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
 
         public PriorityOrderIterator() {
             // Create a defensive copy of the heap
-            this.heapCopy = new ArrayList<>(heap);
+            this.heapCopy = new ArrayList<>(heap.size());
+            for (Object o : heap.toArray()) heapCopy.add((Student) o);
             this.currentIndex = 0;
 
             // Sort the copy in descending priority order using heapsort
@@ -279,13 +414,21 @@ public class StudentPriorityQueue extends AbstractQueue<Student> {
 
     /**
      * Prints students in descending priority order to console.
-     * This is a non-mutating operation that uses the iterator.
+     * This is a non-mutating operation that uses forEachInOrder, printing each
+     * field directly instead of formatting a line per student.
      */
     public void printPriorityOrder() {
-        System.out.println("Priority Order (highest first):");
-        int rank = 1;
-        for (Student student : this) {
-            System.out.printf("%2d. %s  -  %s%n", rank++, student.getRedId(), student.getName());
-        }
+        PrintStream out = System.out;
+        out.println("Priority Order (highest first):");
+        int[] rank = {0};
+        forEachInOrder(student -> {
+            int r = ++rank[0];
+            if (r < 10) out.print(' ');
+            out.print(r);
+            out.print(". ");
+            out.print(student.getRedId());
+            out.print("  -  ");
+            out.println(student.getName());
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,369 @@
+/************************************
+ * Ivy Huynh
+ * CS635-M1-Priority Queue Assignment
+ * **********************************
+ */
+
+import java.io.*;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Seeded randomized stress test and performance regression gate, without JUnit.
+ *
+ * For each backend it runs two phases:
+ * 1. Differential: millions of mixed offer/poll/remove/undo operations against
+ *    StudentPriorityQueue and UndoManager, cross-checking every result, size and peek
+ *    against a simple sorted-multiset reference model (plus full iteration order periodically).
+ * 2. Throughput: the same operation mix on the queue alone, best of several rounds.
+ *    Ops/sec is compared to stress-baseline.properties; a drop beyond the threshold fails.
+ *
+ * Usage: java StudentPriorityQueueStressTest [--ops=N] [--seed=S] [--threshold=0.30]
+ *            [--baseline=path] [--update-baseline]
+ * Baselines are machine-specific: re-run with --update-baseline on a new machine.
+ * The baseline defaults to stress-baseline.properties in the current directory; a missing
+ * file or variant fails the run unless --update-baseline is given, so the gate cannot be
+ * skipped silently by running from elsewhere.
+ * Exits with status 1 on any mismatch, regression or missing baseline.
+ */
+public class StudentPriorityQueueStressTest {
+
+    private static final String DEFAULT_BASELINE_FILE = "stress-baseline.properties";
+    private static final int POOL_SIZE = 5_000;
+    private static final int TARGET_SIZE = 1_000;
+    private static final int FULL_CHECK_INTERVAL = 50_000;
+    /** Fixed so throughput stays comparable to the baseline whatever --ops is */
+    private static final int TIMED_OPS = 1_000_000;
+    /** More rounds than QueueBenchmark uses: the best of many is what keeps the gate stable */
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int TIMED_ROUNDS = 10;
+
+    /** One queue configuration under test */
+    private static final class Variant {
+        final String name;
+        final Supplier<StudentPriorityQueue> factory;
+
+        Variant(String name, Supplier<StudentPriorityQueue> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    private static Variant backend(String name, Function<PriorityStrategy, HeapBackend> backend) {
+        return new Variant(name, () -> new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, backend));
+    }
+
+    private static final List<Variant> VARIANTS = List.of(
+            backend("array", ArrayHeapBackend::new),
+            backend("pairing", PairingHeapBackend::new),
+            backend("compact", CompactHeapBackend::new),
+            new Variant("array-snapshots", () -> {
+                StudentPriorityQueue pq = new StudentPriorityQueue();
+                pq.enableSnapshots(64);
+                return pq;
+            }));
+
+    /**
+     * Reference model: a sorted multiset in strategy order.
+     * Obviously correct and slow enough to be trusted, not to be fast.
+     */
+    private static final class ReferenceModel {
+        private final TreeMap<Student, Integer> counts = new TreeMap<>(DefaultStudentStrategy.INSTANCE);
+        private int size;
+
+        void add(Student s) {
+            counts.merge(s, 1, Integer::sum);
+            size++;
+        }
+
+        boolean remove(Student s) {
+            Integer n = counts.get(s);
+            if (n == null) return false;
+            if (n == 1) counts.remove(s); else counts.put(s, n - 1);
+            size--;
+            return true;
+        }
+
+        Student peek() {
+            return counts.isEmpty() ? null : counts.firstKey();
+        }
+
+        Student poll() {
+            Student top = peek();
+            if (top != null) remove(top);
+            return top;
+        }
+
+        int size() {
+            return size;
+        }
+
+        List<Student> inOrder() {
+            List<Student> out = new ArrayList<>(size);
+            counts.forEach((s, n) -> {
+                for (int i = 0; i < n; i++) out.add(s);
+            });
+            return out;
+        }
+    }
+
+    /** What an UndoManager entry did, so the model can reverse it the same way */
+    private static final class ModelCommand {
+        final boolean add;
+        final Student student;
+
+        ModelCommand(boolean add, Student student) {
+            this.add = add;
+            this.student = student;
+        }
+    }
+
+    private final Student[] pool;
+    private final long seed;
+    private final long ops;
+    private final List<String> failures = new ArrayList<>();
+
+    StudentPriorityQueueStressTest(long seed, long ops) {
+        this.seed = seed;
+        this.ops = ops;
+        this.pool = QueueBenchmark.createStudents(POOL_SIZE, seed);
+    }
+
+    // ---- Phase 1: differential check ----
+
+    /** Runs the mixed workload against queue and model; returns the first mismatch or null */
+    String runDifferential(Variant variant) {
+        Random random = new Random(seed);
+        StudentPriorityQueue queue = variant.factory.get();
+        UndoManager undo = new UndoManager();
+        ReferenceModel model = new ReferenceModel();
+        Deque<ModelCommand> modelUndo = new ArrayDeque<>();
+
+        for (long op = 0; op < ops; op++) {
+            int roll = random.nextInt(100);
+            // Bias offers vs polls so the queue hovers around TARGET_SIZE
+            boolean grow = model.size() < TARGET_SIZE;
+            String what;    // constant labels only, so the loop doesn't build strings
+            Student subject = null;
+            Object expected, actual;
+
+            if (roll < (grow ? 40 : 25)) {
+                Student s = subject = pool[random.nextInt(POOL_SIZE)];
+                what = "offer";
+                model.add(s);
+                expected = true;
+                actual = queue.offer(s);
+            } else if (roll < 55) {
+                what = "poll";
+                expected = model.poll();
+                actual = queue.poll();
+            } else if (roll < 65) {
+                Student s = subject = pool[random.nextInt(POOL_SIZE)];
+                what = "remove";
+                expected = model.remove(s);
+                actual = queue.remove(s);
+            } else if (roll < 75) {
+                // Alternate the command-object path and the pooled path
+                Student s = subject = pool[random.nextInt(POOL_SIZE)];
+                if (roll < 70) {
+                    what = "undoable add";
+                    undo.execute(new AddStudentCommand(queue, s));
+                } else {
+                    what = "pooled undoable add";
+                    undo.executeAdd(queue, s);
+                }
+                model.add(s);
+                modelUndo.push(new ModelCommand(true, s));
+                expected = model.peek();
+                actual = queue.peek();
+            } else if (roll < 85) {
+                if (roll < 80) {
+                    what = "undoable poll";
+                    undo.execute(new RemoveTopCommand(queue));
+                } else {
+                    what = "pooled undoable poll";
+                    undo.executeRemoveTop(queue);
+                }
+                Student top = model.poll();
+                modelUndo.push(new ModelCommand(false, top));
+                expected = model.peek();
+                actual = queue.peek();
+            } else {
+                what = "undo";
+                expected = !modelUndo.isEmpty();
+                actual = undo.canUndo();
+                if (undo.canUndo()) {
+                    undo.undo();
+                    ModelCommand c = modelUndo.pop();
+                    if (c.add) model.remove(c.student);
+                    else if (c.student != null) model.add(c.student);
+                }
+            }
+
+            if (!Objects.equals(expected, actual)) {
+                return mismatch(op, what, subject, "result", expected, actual);
+            }
+            if (queue.size() != model.size()) {
+                return mismatch(op, what, subject, "size", model.size(), queue.size());
+            }
+            if (!Objects.equals(queue.peek(), model.peek())) {
+                return mismatch(op, what, subject, "peek", model.peek(), queue.peek());
+            }
+            if (undo.getHistorySize() != modelUndo.size()) {
+                return mismatch(op, what, subject, "undo history", modelUndo.size(), undo.getHistorySize());
+            }
+            if (op % FULL_CHECK_INTERVAL == 0) {
+                String full = fullCheck(queue, model);
+                if (full != null) return mismatch(op, what, subject, full, "", "");
+            }
+        }
+        return fullCheck(queue, model);
+    }
+
+    /** Compares the whole priority order, and the published snapshot when one exists */
+    private static String fullCheck(StudentPriorityQueue queue, ReferenceModel model) {
+        List<Student> expected = model.inOrder();
+        List<Student> iterated = new ArrayList<>(queue.size());
+        for (Student s : queue) iterated.add(s);
+        if (!expected.equals(iterated)) return "iteration order";
+        try {
+            queue.publishSnapshot();
+        } catch (IllegalStateException e) {
+            return null; // snapshots not enabled for this variant
+        }
+        return expected.equals(queue.snapshot().inPriorityOrder()) ? null : "snapshot order";
+    }
+
+    private String mismatch(long op, String what, Student subject, String check, Object expected, Object actual) {
+        if (subject != null) what += " " + subject.getRedId();
+        return "op #" + op + " (" + what + ") " + check + " mismatch, seed " + seed
+                + ": expected " + expected + ", actual " + actual;
+    }
+
+    // ---- Phase 2: throughput ----
+
+    /** Same operation mix without the model or checks; best ops/sec over several rounds */
+    double measureThroughput(Variant variant) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            runUnchecked(variant);
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) best = Math.min(best, elapsed);
+        }
+        return TIMED_OPS * 1e9 / best;
+    }
+
+    private void runUnchecked(Variant variant) {
+        Random random = new Random(seed);
+        StudentPriorityQueue queue = variant.factory.get();
+        UndoManager undo = new UndoManager();
+        for (int op = 0; op < TIMED_OPS; op++) {
+            int roll = random.nextInt(100);
+            boolean grow = queue.size() < TARGET_SIZE;
+            if (roll < (grow ? 40 : 25)) {
+                queue.offer(pool[random.nextInt(POOL_SIZE)]);
+            } else if (roll < 55) {
+                queue.poll();
+            } else if (roll < 65) {
+                queue.remove(pool[random.nextInt(POOL_SIZE)]);
+            } else if (roll < 70) {
+                undo.execute(new AddStudentCommand(queue, pool[random.nextInt(POOL_SIZE)]));
+            } else if (roll < 75) {
+                undo.executeAdd(queue, pool[random.nextInt(POOL_SIZE)]);
+            } else if (roll < 80) {
+                undo.execute(new RemoveTopCommand(queue));
+            } else if (roll < 85) {
+                undo.executeRemoveTop(queue);
+            } else if (undo.canUndo()) {
+                undo.undo();
+            }
+        }
+    }
+
+    // ---- Baseline gate ----
+
+    private static Properties loadBaseline(File file) throws IOException {
+        Properties baseline = new Properties();
+        if (file.exists()) {
+            try (Reader in = new FileReader(file)) {
+                baseline.load(in);
+            }
+        }
+        return baseline;
+    }
+
+    private static void saveBaseline(Properties baseline, File file) throws IOException {
+        try (Writer out = new FileWriter(file)) {
+            baseline.store(out, "StudentPriorityQueueStressTest throughput baseline (ops/sec); machine-specific");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        long ops = 2_000_000;
+        long seed = 635;
+        double threshold = 0.30;
+        boolean updateBaseline = false;
+        File baselineFile = new File(DEFAULT_BASELINE_FILE);
+        for (String arg : args) {
+            if (arg.startsWith("--ops=")) ops = Long.parseLong(arg.substring(6));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--threshold=")) threshold = Double.parseDouble(arg.substring(12));
+            else if (arg.startsWith("--baseline=")) baselineFile = new File(arg.substring(11));
+            else if (arg.equals("--update-baseline")) updateBaseline = true;
+            else throw new IllegalArgumentException("Unknown argument: " + arg);
+        }
+
+        System.out.printf("Stress test: %,d ops per variant, seed %d, regression threshold %.0f%%%n",
+                ops, seed, threshold * 100);
+        StudentPriorityQueueStressTest stress = new StudentPriorityQueueStressTest(seed, ops);
+        Properties baseline = loadBaseline(baselineFile);
+        if (!baselineFile.exists() && !updateBaseline) {
+            System.out.println("✗ FAIL: no baseline at " + baselineFile.getAbsolutePath()
+                    + "; pass --baseline=path, or --update-baseline to record one");
+        }
+        boolean baselineChanged = false;
+
+        for (Variant variant : VARIANTS) {
+            String mismatch = stress.runDifferential(variant);
+            if (mismatch != null) {
+                stress.failures.add(variant.name + ": " + mismatch);
+                System.out.println("✗ FAIL: " + variant.name + " differential: " + mismatch);
+                continue;
+            }
+            double opsPerSecond = stress.measureThroughput(variant);
+            String key = variant.name + ".opsPerSec";
+            String stored = baseline.getProperty(key);
+            boolean regressed = false;
+            String verdict;
+            boolean missing = false;
+            if (updateBaseline) {
+                baseline.setProperty(key, String.valueOf(Math.round(opsPerSecond)));
+                baselineChanged = true;
+                verdict = "baseline recorded";
+            } else if (stored == null) {
+                missing = true;
+                verdict = "NO BASELINE for " + key + " (run with --update-baseline)";
+            } else {
+                double expected = Double.parseDouble(stored);
+                regressed = opsPerSecond < expected * (1 - threshold);
+                verdict = String.format("%s (baseline %,.0f)", regressed ? "REGRESSION" : "ok", expected);
+            }
+            if (regressed) stress.failures.add(variant.name + ": throughput regression");
+            if (missing) stress.failures.add(variant.name + ": missing baseline");
+            System.out.printf("%s %-16s differential ok, %,12.0f ops/sec  %s%n",
+                    regressed || missing ? "✗ FAIL:" : "✓ PASS:", variant.name, opsPerSecond, verdict);
+        }
+        if (baselineChanged) {
+            saveBaseline(baseline, baselineFile);
+            System.out.println("Baseline written to " + baselineFile.getAbsolutePath());
+        }
+
+        if (!stress.failures.isEmpty()) {
+            System.out.println("❌ Stress test failed: " + stress.failures);
+            System.exit(1);
+        }
+        System.out.println("🎉 Stress test passed!");
+    }
+}
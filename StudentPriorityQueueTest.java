@@ -5,7 +5,14 @@
  */
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Simple test runner without JUnit dependency
@@ -158,7 +165,509 @@ public class StudentPriorityQueueTest {
         assertNull(pq.peek(), "Peek should return null after undo");
     }
 
-    public void runAllTests() {
+    // Helper method to create a reproducible batch of distinct students (shared with the benchmarks)
+    private static List<Student> createRandomStudents(int count, long seed) {
+        return List.of(QueueBenchmark.createStudents(count, seed));
+    }
+
+    // Polls both queues to exhaustion and checks they agree at every step
+    private static void assertSamePollOrder(Queue<Student> expected, Queue<Student> actual, String message) {
+        boolean same = expected.size() == actual.size();
+        while (same && !expected.isEmpty()) {
+            same = expected.peek().equals(actual.peek()) && expected.poll().equals(actual.poll());
+        }
+        assertTrue(same && actual.isEmpty(), message);
+    }
+
+    public void testShardedQueueInProcess() {
+        System.out.println("\n=== Testing Sharded Queue (in-process shards) ===");
+        List<Student> students = createRandomStudents(500, 42);
+        StudentPriorityQueue reference = new StudentPriorityQueue();
+        try (ShardedStudentPriorityQueue sharded = new ShardedStudentPriorityQueue(7)) {
+            for (Student s : students) {
+                reference.offer(s);
+                sharded.offer(s);
+            }
+            assertEquals(reference.peek(), sharded.peek(), "Sharded peek should match single queue");
+
+            Student victim = students.get(123);
+            assertTrue(sharded.remove(victim), "Sharded remove should find the student in its shard");
+            assertFalse(sharded.remove(victim), "Second remove of the same student should fail");
+            reference.remove(victim);
+
+            assertEquals(reference.iterator().next(), sharded.iterator().next(),
+                    "Sharded iterator should start at the global top");
+            assertSamePollOrder(reference, sharded, "In-process shards: poll order should match a single queue");
+            assertNull(sharded.poll(), "Sharded poll should return null when empty");
+        }
+    }
+
+    public void testShardedQueueLoopback() {
+        System.out.println("\n=== Testing Sharded Queue (loopback socket shards) ===");
+        List<Student> students = createRandomStudents(200, 7);
+        StudentPriorityQueue reference = new StudentPriorityQueue(new GPAFirstStrategy());
+        try (ShardedStudentPriorityQueue sharded =
+                     ShardedStudentPriorityQueue.overLoopback(3, new GPAFirstStrategy())) {
+            for (Student s : students) {
+                reference.offer(s);
+                sharded.offer(s);
+            }
+            assertEquals(3, sharded.shardCount(), "Loopback queue should have three shards");
+            assertEquals(200, sharded.size(), "Loopback queue should count every offer");
+
+            // Interleave polls and offers so tops are refreshed across the socket
+            for (int i = 0; i < 50; i++) {
+                reference.poll();
+                sharded.poll();
+            }
+            Student late = createStudent(150, 4.0, "R999999");
+            reference.offer(late);
+            sharded.offer(late);
+            assertEquals(late, sharded.peek(), "A new best student should become the global top");
+            assertSamePollOrder(reference, sharded, "Loopback shards: poll order should match a single queue");
+        }
+
+        // The poll response carries the shard's new top, so the following peek stays local
+        LoopbackSocketShard shard = new LoopbackSocketShard(new GPAFirstStrategy(), "student-shard-test");
+        try {
+            int before = shard.roundTrips();
+            shard.offer(students.get(0));
+            shard.offer(students.get(1));
+            assertEquals(before, shard.roundTrips(), "Offers should not wait for a reply");
+            shard.poll();
+            assertNotNull(shard.peek(), "Peek after poll should return the remaining student");
+            assertEquals(before + 1, shard.roundTrips(), "Poll plus peek should cost one round trip");
+
+            // A failed offer is reported by the next call that reads a reply, and the shard stays usable
+            shard.offer(null);
+            shard.offer(students.get(2));
+            boolean reported = false;
+            try {
+                shard.peek();
+            } catch (IllegalStateException e) {
+                reported = true;
+            }
+            assertTrue(reported, "A rejected offer should surface on the next reply");
+            assertEquals(2, shard.snapshot().size(), "Offers after a rejected one should still apply");
+        } finally {
+            shard.close();
+        }
+        boolean closedTwice = true;
+        try {
+            shard.close();
+        } catch (RuntimeException e) {
+            closedTwice = false;
+        }
+        assertTrue(closedTwice, "Closing a loopback shard twice should not throw");
+    }
+
+    public void testOrderStatisticQueue() {
+        System.out.println("\n=== Testing Order-Statistic Queue ===");
+        List<Student> students = createRandomStudents(300, 11);
+        OrderStatisticStudentQueue osq = new OrderStatisticStudentQueue();
+        StudentPriorityQueue reference = new StudentPriorityQueue();
+        for (Student s : students) {
+            osq.offer(s);
+            reference.offer(s);
+        }
+        assertFalse(osq.offer(students.get(0)), "Offering a queued Red ID again should be rejected");
+
+        // The iterator order is the ground truth for ranks
+        List<Student> ordered = new ArrayList<>();
+        for (Student s : reference) ordered.add(s);
+        Student middle = ordered.get(149);
+        assertEquals(150, osq.rankOf(middle.getRedId()), "rankOf should match iterator position");
+        assertEquals(middle, osq.select(150), "select should return the student at that rank");
+        assertEquals(-1, osq.rankOf("R-missing"), "rankOf should return -1 for unknown Red IDs");
+
+        int above = 0;
+        for (Student s : students) if (s.priorityScore() > 0.5) above++;
+        assertEquals(above, osq.countAbove(0.5), "countAbove should match a linear count");
+
+        double cut = osq.percentileScore(0.10);
+        assertEquals(30, osq.countAbove(cut) + 1, "Top 10% cut should admit exactly 30 students");
+
+        assertTrue(osq.remove(ordered.get(0)), "remove should find a queued student by Red ID");
+        assertEquals(149, osq.rankOf(middle.getRedId()), "Ranks should shift after removing the top");
+        assertEquals(ordered.get(1), osq.poll(), "poll should return the next highest priority");
+        assertEquals(298, osq.size(), "Size should reflect one remove and one poll");
+
+        // A strategy that ranks different students equal must still keep them apart
+        OrderStatisticStudentQueue tied = new OrderStatisticStudentQueue(
+                (x, y) -> Double.compare(y.priorityScore(), x.priorityScore()));
+        Student r1 = createStudent(100, 3.0, "R1");
+        Student r2 = createStudent(100, 3.0, "R2");
+        Student r3 = createStudent(100, 3.0, "R3");
+        tied.offer(r1);
+        tied.offer(r2);
+        tied.offer(r3);
+        assertTrue(tied.remove(r2), "remove should find a student tied with others");
+        List<Student> left = new ArrayList<>(tied);
+        assertFalse(left.contains(r2), "The removed student, not a tied one, should be gone");
+        assertFalse(tied.rankOf("R1") == tied.rankOf("R3"), "Tied students should get distinct ranks");
+        assertNotNull(tied.poll(), "poll should work after removing a tied student");
+        assertNotNull(tied.poll(), "poll should drain the last tied student");
+        assertTrue(tied.isEmpty(), "Every tied student should be polled exactly once");
+    }
+
+    public void testChangeFeed() throws InterruptedException {
+        System.out.println("\n=== Testing Change Feed ===");
+        Student a = createStudent(120, 3.8, "R001");
+        Student b = createStudent(140, 3.6, "R002");
+        Student c = createStudent(100, 3.9, "R003");
+
+        StudentPriorityQueue pq = new StudentPriorityQueue();
+        LinkedBlockingQueue<QueueEvent> received = new LinkedBlockingQueue<>();
+        LinkedBlockingQueue<Thread> deliveryThreads = new LinkedBlockingQueue<>();
+        QueueListener listener = batch -> {
+            deliveryThreads.add(Thread.currentThread());
+            received.addAll(batch);
+        };
+        pq.subscribe(listener);
+
+        pq.offer(a);
+        pq.offer(b);
+        pq.offer(c);
+        pq.poll();
+
+        // Wait for four add/remove events; head changes may be coalesced
+        int addedOrRemoved = 0;
+        Student lastHead = a;
+        List<QueueEvent> events = new ArrayList<>();
+        while (true) {
+            // Once all four have arrived, only a trailing head change can still be in flight
+            QueueEvent event = received.poll(addedOrRemoved < 4 ? 5000 : 200, TimeUnit.MILLISECONDS);
+            if (event == null) break;
+            events.add(event);
+            if (event.getType() == QueueEvent.Type.HEAD_CHANGED) lastHead = event.getStudent();
+            else addedOrRemoved++;
+        }
+        assertEquals(4, addedOrRemoved, "Listener should see three adds and one remove");
+        assertEquals(QueueEvent.Type.ADDED, events.get(0).getType(), "First event should be an add");
+        assertEquals(pq.peek(), lastHead, "Latest head event should match peek");
+        assertFalse(deliveryThreads.contains(Thread.currentThread()), "Listeners should run off the caller's thread");
+
+        // A lone final event must never be stranded by the drain handing back the executor
+        received.clear();
+        int stranded = 0;
+        for (int i = 0; i < 500; i++) {
+            pq.poll();
+            pq.offer(a);
+            while (true) {
+                QueueEvent event = received.poll(1, TimeUnit.SECONDS);
+                if (event == null) {
+                    stranded++;
+                    break;
+                }
+                if (event.getType() == QueueEvent.Type.ADDED) break;
+            }
+        }
+        assertEquals(0, stranded, "Every last event of a burst should be delivered");
+
+        while (received.poll(200, TimeUnit.MILLISECONDS) != null) { } // trailing head change
+        pq.unsubscribe(listener);
+        pq.offer(createStudent(150, 4.0, "R004"));
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS), "Unsubscribed listener should get no more events");
+    }
+
+    public void testChangeFeedFailureAndOverflow() throws InterruptedException {
+        System.out.println("\n=== Testing Change Feed Failure and Overflow ===");
+        LinkedBlockingQueue<Throwable> reported = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "feed-test");
+            t.setDaemon(true);
+            t.setUncaughtExceptionHandler((thread, e) -> reported.add(e));
+            return t;
+        });
+        try {
+            QueueChangeFeed feed = new QueueChangeFeed(64, executor);
+            LinkedBlockingQueue<QueueEvent> received = new LinkedBlockingQueue<>();
+            boolean[] failed = {false};
+            feed.addListener(batch -> {
+                if (!failed[0]) {
+                    failed[0] = true;
+                    throw new IllegalStateException("listener failure");
+                }
+            });
+            feed.addListener(received::addAll);
+
+            feed.publish(QueueEvent.Type.ADDED, createStudent(100, 3.0, "R001"));
+            assertNotNull(reported.poll(5, TimeUnit.SECONDS), "A throwing listener should be reported");
+            assertNotNull(received.poll(5, TimeUnit.SECONDS), "Other listeners should still get the failing batch");
+
+            // Later events must still be delivered after the failure
+            for (int i = 0; i < 49; i++) feed.publish(QueueEvent.Type.ADDED, createStudent(100, 3.0, "R1" + i));
+            int delivered = 0;
+            while (delivered < 49 && received.poll(5, TimeUnit.SECONDS) != null) delivered++;
+            assertEquals(49, delivered, "Delivery should continue after a listener throws");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A feed whose ring keeps refilling must hand the executor to other feeds between turns
+        List<Runnable> sharedTasks = new ArrayList<>();
+        QueueChangeFeed busy = new QueueChangeFeed(64, sharedTasks::add);
+        QueueChangeFeed quiet = new QueueChangeFeed(64, sharedTasks::add);
+        Student refill = createStudent(100, 3.0, "R3000");
+        int refillLimit = 1_000_000;
+        int[] busyBatches = {0};
+        boolean[] quietDelivered = {false};
+        busy.addListener(batch -> {
+            if (++busyBatches[0] < refillLimit && !quietDelivered[0]) busy.publish(QueueEvent.Type.ADDED, refill);
+        });
+        quiet.addListener(batch -> quietDelivered[0] = true);
+        busy.publish(QueueEvent.Type.ADDED, refill);
+        quiet.publish(QueueEvent.Type.ADDED, createStudent(100, 3.0, "R3001"));
+        while (!sharedTasks.isEmpty()) sharedTasks.remove(0).run();
+        assertTrue(quietDelivered[0] && busyBatches[0] < refillLimit,
+                "A busy feed should not starve others on a shared executor");
+
+        // A ring whose drain never runs keeps its first events and counts the rest as dropped
+        List<Runnable> neverRun = new ArrayList<>();
+        QueueChangeFeed stalled = new QueueChangeFeed(4, neverRun::add);
+        List<QueueEvent> stalledEvents = new ArrayList<>();
+        stalled.addListener(stalledEvents::addAll);
+        for (int i = 0; i < 10; i++) stalled.publish(QueueEvent.Type.ADDED, createStudent(100, 3.0, "R2" + i));
+        Student finalHead = createStudent(100, 4.0, "R299");
+        stalled.publish(QueueEvent.Type.HEAD_CHANGED, createStudent(100, 3.5, "R298"));
+        stalled.publish(QueueEvent.Type.HEAD_CHANGED, finalHead);
+        assertEquals(6L, stalled.getDroppedEventCount(), "Events past the ring capacity should be counted as dropped");
+
+        // Once the drain runs, the overflow is marked and the final head still arrives
+        assertEquals(1, neverRun.size(), "Only one drain should be scheduled");
+        neverRun.remove(0).run();
+        assertEquals(6, stalledEvents.size(), "Batch should hold the 4 kept events, the marker and the head");
+        assertEquals(QueueEvent.Type.EVENTS_DROPPED, stalledEvents.get(4).getType(), "Overflow should be marked in the batch");
+        QueueEvent last = stalledEvents.get(5);
+        assertEquals(QueueEvent.Type.HEAD_CHANGED, last.getType(), "Head change should survive ring overflow");
+        assertEquals(finalHead, last.getStudent(), "Only the latest head should be delivered");
+        assertEquals(0L, new StudentPriorityQueue().getDroppedEventCount(), "A queue without subscribers drops nothing");
+    }
+
+    public void testPairingHeapBackendAndMeld() {
+        System.out.println("\n=== Testing Pairing Heap Backend and Meld ===");
+        List<Student> students = createRandomStudents(400, 23);
+        StudentPriorityQueue reference = new StudentPriorityQueue();
+        StudentPriorityQueue east = new StudentPriorityQueue(new DefaultStudentStrategy(), PairingHeapBackend::new);
+        StudentPriorityQueue west = new StudentPriorityQueue(new DefaultStudentStrategy(), PairingHeapBackend::new);
+        for (int i = 0; i < students.size(); i++) {
+            reference.offer(students.get(i));
+            (i % 2 == 0 ? east : west).offer(students.get(i));
+        }
+
+        // Exercise remove on a non-root node before melding
+        Student victim = students.get(101);
+        assertTrue(west.remove(victim), "Pairing backend should remove an interior student");
+        reference.remove(victim);
+
+        east.meld(west);
+        assertEquals(399, east.size(), "Meld should move every student");
+        assertTrue(west.isEmpty(), "Melded-from queue should be empty");
+        assertEquals(reference.iterator().next(), east.iterator().next(), "Iterator should start at the merged top");
+
+        assertSamePollOrder(reference, east, "Melded pairing heap should poll in the same order as an array heap");
+    }
+
+    public void testArrayBackendMeld() {
+        System.out.println("\n=== Testing Array Backend Meld ===");
+        List<Student> students = createRandomStudents(200, 31);
+        StudentPriorityQueue a = new StudentPriorityQueue();
+        StudentPriorityQueue b = new StudentPriorityQueue();
+        StudentPriorityQueue reference = new StudentPriorityQueue();
+        for (int i = 0; i < students.size(); i++) {
+            (i < 150 ? a : b).offer(students.get(i));
+            reference.offer(students.get(i));
+        }
+        a.meld(b);
+        assertSamePollOrder(reference, a, "Melded array heap should poll in priority order");
+
+        boolean rejected = false;
+        try {
+            a.meld(new StudentPriorityQueue(new GPAFirstStrategy()));
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assertTrue(rejected, "Meld should reject queues with a different strategy");
+
+        // Reversed strategies built at one call site share a lambda class but not an order
+        PriorityStrategy byDefault = reversed(DefaultStudentStrategy.INSTANCE);
+        PriorityStrategy byGpa = reversed(GPAFirstStrategy.INSTANCE);
+        rejected = false;
+        try {
+            new StudentPriorityQueue(byDefault).meld(new StudentPriorityQueue(byGpa));
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assertTrue(rejected, "Meld should reject lambda strategies that share a class but order differently");
+    }
+
+    private static PriorityStrategy reversed(PriorityStrategy strategy) {
+        return (x, y) -> strategy.compare(y, x);
+    }
+
+    public void testCompactBackend() {
+        System.out.println("\n=== Testing Compact Backend ===");
+        List<Student> students = createRandomStudents(100, 57);
+        StudentPriorityQueue reference = new StudentPriorityQueue();
+        StudentPriorityQueue compact =
+                new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, CompactHeapBackend::new);
+
+        // Stay in sorted mode first
+        for (int i = 0; i < 10; i++) {
+            reference.offer(students.get(i));
+            compact.offer(students.get(i));
+        }
+        assertEquals(reference.peek(), compact.peek(), "Sorted mode peek should match the array heap");
+        assertTrue(compact.remove(students.get(3)), "Sorted mode should remove an interior student");
+        reference.remove(students.get(3));
+
+        // Grow past the sorted limit so the array is promoted to a heap
+        for (int i = 10; i < students.size(); i++) {
+            reference.offer(students.get(i));
+            compact.offer(students.get(i));
+        }
+        assertTrue(compact.remove(students.get(50)), "Heap mode should remove an interior student");
+        reference.remove(students.get(50));
+        compact.trimToSize();
+        assertEquals(98, compact.toArray().length, "trimToSize should keep every student");
+
+        // Drain through the demotion back to sorted mode
+        assertSamePollOrder(reference, compact, "Compact backend should poll in priority order across mode changes");
+    }
+
+    public void testSlidingWindowTopK() {
+        System.out.println("\n=== Testing Sliding Window Top-K ===");
+        // 60 second window in 6 slices of 10 seconds
+        SlidingWindowTopK window = new SlidingWindowTopK(3, 60_000, 6);
+        Student best = createStudent(150, 4.0, "R001");
+        Student second = createStudent(140, 3.9, "R002");
+        Student third = createStudent(130, 3.8, "R003");
+        Student fourth = createStudent(120, 3.7, "R004");
+        Student late = createStudent(100, 3.0, "R005");
+
+        window.offer(best, 1_000);
+        window.offer(fourth, 2_000);
+        window.offer(third, 15_000);
+        window.offer(second, 25_000);
+        window.offer(late, 55_000);
+        assertEquals(List.of(best, second, third), window.topK(59_000), "Top 3 should span every live slice");
+
+        // A worse record for a student already counted must not replace the better one
+        window.offer(createStudent(10, 1.0, "R002"), 58_000);
+        assertEquals(second, window.topK(59_000).get(1), "Each student should appear once with their best record");
+
+        // At 65s the slice holding 'best' and 'fourth' (0-10s) has expired as a whole
+        assertEquals(List.of(second, third, late), window.topK(65_000), "Expired slice should drop out of the top K");
+        assertFalse(window.offer(createStudent(150, 4.0, "R006"), 1_000), "Records older than the window are ignored");
+
+        // A slice keeps only its best K, however many events arrive
+        for (int i = 0; i < 1000; i++) window.offer(createStudent(i % 150, 2.0, "R1" + i), 70_000 + i);
+        assertEquals(3, window.topK(71_000).size(), "Top K should stay bounded under a burst of events");
+    }
+
+    public void testSnapshots() throws InterruptedException {
+        System.out.println("\n=== Testing Copy-on-Write Snapshots ===");
+        List<Student> students = createRandomStudents(2000, 77);
+        StudentPriorityQueue pq = new StudentPriorityQueue();
+        pq.enableSnapshots(3);
+
+        pq.offer(students.get(0));
+        pq.offer(students.get(1));
+        assertEquals(0, pq.snapshot().size(), "Snapshot should lag until a batch of writes completes");
+        pq.offer(students.get(2));
+        QueueSnapshot three = pq.snapshot();
+        assertEquals(3, three.size(), "Third write should publish a snapshot");
+        assertEquals(pq.peek(), three.peek(), "Snapshot peek should match the queue it came from");
+        pq.poll();
+        assertEquals(3, three.size(), "A published snapshot should never change");
+
+        // One writer, one reader: every snapshot the reader sees must be internally consistent
+        int[] inconsistent = new int[1];
+        Thread reader = new Thread(() -> {
+            long lastVersion = -1;
+            for (int i = 0; i < 2000; i++) {
+                QueueSnapshot s = pq.snapshot();
+                List<Student> ordered = s.inPriorityOrder();
+                int counted = 0;
+                for (Student ignored : s) counted++;
+                boolean sorted = true;
+                for (int j = 1; j < ordered.size() && sorted; j++) {
+                    sorted = DefaultStudentStrategy.INSTANCE.compare(ordered.get(j - 1), ordered.get(j)) <= 0;
+                }
+                if (s.version() < lastVersion || counted != s.size() || !sorted) inconsistent[0]++;
+                lastVersion = s.version();
+            }
+        });
+        reader.start();
+        for (int i = 3; i < students.size(); i++) {
+            pq.offer(students.get(i));
+            if (i % 3 == 0) pq.poll();
+        }
+        reader.join();
+        assertEquals(0, inconsistent[0], "Reader should only see consistent, monotonically newer snapshots");
+
+        pq.publishSnapshot();
+        assertEquals(pq.size(), pq.snapshot().size(), "publishSnapshot should flush pending writes");
+        assertEquals(pq.peek(), pq.iterator().next(), "Iterator should reuse the current snapshot's order");
+    }
+
+    public void testForEachInOrderAndPooledUndo() {
+        System.out.println("\n=== Testing forEachInOrder and Pooled Undo ===");
+        List<Student> students = createRandomStudents(300, 91);
+
+        // Compact at 20 students stays in sorted mode; the other walks go over a heap
+        List<Function<PriorityStrategy, HeapBackend>> backends =
+                List.of(ArrayHeapBackend::new, PairingHeapBackend::new, CompactHeapBackend::new);
+        boolean allOrdered = true;
+        for (Function<PriorityStrategy, HeapBackend> backend : backends) {
+            for (int n : new int[] {20, 300}) {
+                StudentPriorityQueue pq = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, backend);
+                for (int i = 0; i < n; i++) pq.offer(students.get(i));
+                List<Student> small = new ArrayList<>(students.subList(0, n));
+                small.sort(DefaultStudentStrategy.INSTANCE);
+                List<Student> visited = new ArrayList<>();
+                pq.forEachInOrder(visited::add);
+                allOrdered &= visited.equals(small) && pq.size() == n;
+            }
+        }
+        assertTrue(allOrdered, "forEachInOrder should visit every backend in priority order without removing");
+
+        boolean allDetected = true;
+        for (Function<PriorityStrategy, HeapBackend> backend : backends) {
+            for (int n : new int[] {20, 300}) {
+                StudentPriorityQueue walked = new StudentPriorityQueue(DefaultStudentStrategy.INSTANCE, backend);
+                for (int i = 0; i < n; i++) walked.offer(students.get(i));
+                boolean detected = false;
+                try {
+                    walked.forEachInOrder(s -> walked.poll());
+                } catch (ConcurrentModificationException e) {
+                    detected = true;
+                }
+                allDetected &= detected && walked.size() == n;
+                walked.poll(); // writes are accepted again once the walk is over
+            }
+        }
+        assertTrue(allDetected, "forEachInOrder should reject a modifying action on every backend, leaving the queue intact");
+
+        StudentPriorityQueue pq = new StudentPriorityQueue();
+        for (Student s : students) pq.offer(s);
+
+        // Pooled commands must undo exactly like freshly created ones, across reuse
+        UndoManager undo = new UndoManager();
+        StudentPriorityQueue reference = new StudentPriorityQueue();
+        for (Student s : pq) reference.offer(s);
+        for (int round = 0; round < 3; round++) {
+            undo.executeAdd(pq, createStudent(150, 4.0, "P" + round));
+            undo.executeRemoveTop(pq);
+            undo.executeRemoveTop(pq);
+            undo.undo();
+            undo.undo();
+            undo.undo();
+        }
+        assertSamePollOrder(reference, pq, "Pooled undo commands should restore the queue after being reused");
+    }
+
+    public void runAllTests() throws InterruptedException {
         System.out.println("Running Student Priority Queue Tests...");
 
         testDefaultStrategyOrdering();
@@ -166,6 +675,17 @@ public class StudentPriorityQueueTest {
         testIteratorNonDestructive();
         testToArrayAndToString();
         testUndoOperations();
+        testShardedQueueInProcess();
+        testShardedQueueLoopback();
+        testOrderStatisticQueue();
+        testPairingHeapBackendAndMeld();
+        testArrayBackendMeld();
+        testCompactBackend();
+        testSlidingWindowTopK();
+        testSnapshots();
+        testForEachInOrderAndPooledUndo();
+        testChangeFeed();
+        testChangeFeedFailureAndOverflow();
 
         System.out.println("\n=== Test Summary ===");
         System.out.println(passCount + "/" + testCount + " tests passed");
@@ -177,7 +697,7 @@ public class StudentPriorityQueueTest {
         }
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         StudentPriorityQueueTest testRunner = new StudentPriorityQueueTest();
         testRunner.runAllTests();
 
@@ -0,0 +1,324 @@
+/************************************
+ * Ivy Huynh
+ * CS635-M1-Priority Queue Assignment
+ * **********************************
+ */
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Shard transports for the partitioned priority queue.
+ * A shard owns one independent StudentPriorityQueue; the transport decides whether
+ * that queue lives in the caller's process or behind a socket on its own thread.
+ */
+
+/** Transport interface: one partition of a ShardedStudentPriorityQueue. */
+interface StudentShard extends AutoCloseable {
+    void offer(Student student);
+    Student poll();
+
+    /** Returns the shard's top; a transport may answer from what its last poll or remove reported. */
+    Student peek();
+
+    boolean remove(Student student);
+    /** Returns a copy of the shard's contents in arbitrary order. */
+    List<Student> snapshot();
+    @Override void close();
+}
+
+/**
+ * In-process shard: calls straight through to a local queue.
+ * Used when all partitions share one JVM, and as the reference transport in tests.
+ */
+final class InProcessShard implements StudentShard {
+    private final StudentPriorityQueue queue;
+
+    InProcessShard(PriorityStrategy strategy) {
+        this.queue = new StudentPriorityQueue(strategy);
+    }
+
+    @Override public void offer(Student student) { queue.offer(student); }
+    @Override public Student poll() { return queue.poll(); }
+    @Override public Student peek() { return queue.peek(); }
+    @Override public boolean remove(Student student) { return queue.remove(student); }
+    @Override public List<Student> snapshot() { return new ArrayList<>(queue); }
+    @Override public void close() { }
+}
+
+/**
+ * Loopback shard: a local stand-in for a remote node.
+ * The queue is owned by a dedicated server thread listening on 127.0.0.1, and every
+ * call that needs an answer is a synchronous request/response round trip over a socket.
+ *
+ * offer does not wait: its acknowledgement is read, and any failure it reports is
+ * thrown, by the next call that needs a reply. Offers spread over K shards therefore
+ * run on all K server threads at once instead of one after another.
+ *
+ * poll and remove responses carry the shard's new top, and this client is the shard's
+ * only writer, so the peek that follows them is answered locally: one round trip per
+ * global poll instead of two.
+ */
+final class LoopbackSocketShard implements StudentShard {
+    private static final byte OP_OFFER = 1;
+    private static final byte OP_POLL = 2;
+    private static final byte OP_PEEK = 3;
+    private static final byte OP_REMOVE = 4;
+    private static final byte OP_SNAPSHOT = 5;
+    private static final byte OP_CLOSE = 6;
+
+    /** Unread offer acks allowed in flight; bounded so neither side's socket buffer fills */
+    private static final int MAX_PENDING_ACKS = 256;
+
+    private final ServerSocket serverSocket;
+    private final Thread serverThread;
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    /** The shard's top as of the last poll/remove/peek response, valid while topKnown */
+    private Student knownTop;
+    private boolean topKnown;
+
+    /** Offers sent whose acknowledgement has not been read yet */
+    private int pendingAcks;
+    private boolean closed;
+
+    /** Number of request/response exchanges, for tests */
+    private int roundTrips;
+
+    LoopbackSocketShard(PriorityStrategy strategy, String threadName) {
+        Objects.requireNonNull(strategy, "Strategy must not be null");
+        try {
+            this.serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start loopback shard", e);
+        }
+        this.serverThread = new Thread(() -> serve(strategy), threadName);
+        this.serverThread.setDaemon(true);
+        this.serverThread.start();
+
+        Socket client = null;
+        try {
+            client = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+            client.setTcpNoDelay(true);
+            this.in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(client.getOutputStream()));
+        } catch (IOException e) {
+            // Closing the server socket ends the accept() the server thread is blocked in
+            closeQuietly(client);
+            closeQuietly(serverSocket);
+            joinServerThread();
+            throw new UncheckedIOException("Could not start loopback shard", e);
+        }
+        this.socket = client;
+    }
+
+    // ---- Client side ----
+
+    @Override public void offer(Student student) {
+        try {
+            if (pendingAcks == MAX_PENDING_ACKS) readPendingAcks();
+            out.writeByte(OP_OFFER);
+            writeStudent(out, student);
+            out.flush();
+            pendingAcks++;
+            topKnown = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public Student poll() {
+        try {
+            readPendingAcks();
+            out.writeByte(OP_POLL);
+            out.flush();
+            roundTrips++;
+            Student polled = readStudent(in);
+            rememberTop(readStudent(in));
+            return polled;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public Student peek() {
+        if (topKnown) return knownTop;
+        try {
+            readPendingAcks();
+            out.writeByte(OP_PEEK);
+            out.flush();
+            roundTrips++;
+            return rememberTop(readStudent(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public boolean remove(Student student) {
+        try {
+            readPendingAcks();
+            out.writeByte(OP_REMOVE);
+            writeStudent(out, student);
+            out.flush();
+            roundTrips++;
+            boolean removed = in.readBoolean();
+            rememberTop(readStudent(in));
+            return removed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public List<Student> snapshot() {
+        try {
+            readPendingAcks();
+            out.writeByte(OP_SNAPSHOT);
+            out.flush();
+            roundTrips++;
+            int n = in.readInt();
+            List<Student> students = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) students.add(readStudent(in));
+            return students;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops the server thread. Safe to call more than once. Unread offer acks are
+     * discarded with the shard's contents.
+     */
+    @Override public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            out.writeByte(OP_CLOSE);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closeQuietly(socket);
+            joinServerThread();
+            closeQuietly(serverSocket);
+        }
+    }
+
+    /**
+     * Reads the acks of offers sent since the last reply. All of them are read even if one
+     * reports a failure, so the stream stays aligned with the requests.
+     * @throws IllegalStateException if the shard rejected any of those offers
+     */
+    private void readPendingAcks() throws IOException {
+        String failure = null;
+        for (; pendingAcks > 0; pendingAcks--) {
+            if (!in.readBoolean()) {
+                String reason = in.readUTF();
+                if (failure == null) failure = reason;
+            }
+        }
+        if (failure != null) throw new IllegalStateException("Shard rejected an earlier offer: " + failure);
+    }
+
+    private void joinServerThread() {
+        try {
+            serverThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Already tearing down; nothing useful to do with a second failure
+        }
+    }
+
+    private Student rememberTop(Student top) {
+        knownTop = top;
+        topKnown = true;
+        return top;
+    }
+
+    int roundTrips() {
+        return roundTrips;
+    }
+
+    // ---- Server side (runs on the shard's own thread) ----
+
+    private void serve(PriorityStrategy strategy) {
+        StudentPriorityQueue queue = new StudentPriorityQueue(strategy);
+        try (Socket client = serverSocket.accept();
+             DataInputStream req = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+             DataOutputStream resp = new DataOutputStream(new BufferedOutputStream(client.getOutputStream()))) {
+            while (true) {
+                byte op = req.readByte();
+                switch (op) {
+                    case OP_OFFER:
+                        // The client reads this ack later, so report a failure instead of dying
+                        Student offered = readStudent(req);
+                        try {
+                            queue.offer(offered);
+                            resp.writeBoolean(true);
+                        } catch (RuntimeException e) {
+                            resp.writeBoolean(false);
+                            resp.writeUTF(String.valueOf(e.getMessage()));
+                        }
+                        break;
+                    case OP_POLL:
+                        writeStudent(resp, queue.poll());
+                        writeStudent(resp, queue.peek());
+                        break;
+                    case OP_PEEK:
+                        writeStudent(resp, queue.peek());
+                        break;
+                    case OP_REMOVE:
+                        resp.writeBoolean(queue.remove(readStudent(req)));
+                        writeStudent(resp, queue.peek());
+                        break;
+                    case OP_SNAPSHOT:
+                        resp.writeInt(queue.size());
+                        for (Student s : queue) writeStudent(resp, s);
+                        break;
+                    case OP_CLOSE:
+                        return;
+                    default:
+                        throw new IllegalStateException("Unknown shard op: " + op);
+                }
+                // Flush once caught up, so a run of pipelined offers sends its acks together
+                if (req.available() == 0) resp.flush();
+            }
+        } catch (EOFException e) {
+            // Client went away without sending OP_CLOSE; nothing left to serve.
+        } catch (IOException e) {
+            // A server socket closed before any client connected is a failed start, not an error
+            if (!serverSocket.isClosed()) throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---- Wire format: presence flag, then fields in constructor order ----
+
+    private static void writeStudent(DataOutputStream out, Student s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s == null) return;
+        out.writeUTF(s.getName());
+        out.writeUTF(s.getRedId());
+        out.writeUTF(s.getEmail());
+        out.writeDouble(s.getGpa());
+        out.writeInt(s.getUnits());
+    }
+
+    private static Student readStudent(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) return null;
+        return new Student(in.readUTF(), in.readUTF(), in.readUTF(), in.readDouble(), in.readInt());
+    }
+}
@@ -24,10 +24,17 @@ interface Command {
 /**
  * Manages execution and undo stack for command pattern.
  * Provides history tracking and reversible operation support.
+ *
+ * executeAdd/executeRemoveTop reuse command records from a free list, so a steady
+ * stream of undoable operations and undos allocates nothing once the stacks have grown.
  */
 final class UndoManager {
     private final Deque<Command> undoStack = new ArrayDeque<>();
 
+    /** Recycled command records, refilled as undo() pops pooled commands */
+    private final Deque<AddStudentCommand> freeAdds = new ArrayDeque<>();
+    private final Deque<RemoveTopCommand> freeRemoves = new ArrayDeque<>();
+
     /**
      * Executes a command and adds it to the undo stack.
      * @param command The command to execute
@@ -37,6 +44,28 @@ final class UndoManager {
         undoStack.push(command);
     }
 
+    /**
+     * Adds a student through a recycled AddStudentCommand.
+     * Equivalent to execute(new AddStudentCommand(queue, student)) without the allocation.
+     */
+    public void executeAdd(StudentPriorityQueue queue, Student student) {
+        AddStudentCommand command = freeAdds.poll();
+        if (command == null) command = new AddStudentCommand(queue, student, true);
+        else command.reset(queue, student);
+        execute(command);
+    }
+
+    /**
+     * Removes the top student through a recycled RemoveTopCommand.
+     * Equivalent to execute(new RemoveTopCommand(queue)) without the allocation.
+     */
+    public void executeRemoveTop(StudentPriorityQueue queue) {
+        RemoveTopCommand command = freeRemoves.poll();
+        if (command == null) command = new RemoveTopCommand(queue, true);
+        else command.reset(queue);
+        execute(command);
+    }
+
     /** Checks if there are operations that can be undone. */
     public boolean canUndo() {
         return !undoStack.isEmpty();
@@ -45,7 +74,22 @@ final class UndoManager {
     /** Undoes the most recent operation. */
     public void undo() {
         if (!canUndo()) throw new IllegalStateException("Nothing to undo");
-        undoStack.pop().undo();
+        Command command = undoStack.pop();
+        command.undo();
+        recycle(command);
+    }
+
+    /** Returns pooled commands to their free list; caller-created commands are left alone */
+    private void recycle(Command command) {
+        if (command instanceof AddStudentCommand && ((AddStudentCommand) command).pooled) {
+            AddStudentCommand add = (AddStudentCommand) command;
+            add.reset(null, null);
+            freeAdds.push(add);
+        } else if (command instanceof RemoveTopCommand && ((RemoveTopCommand) command).pooled) {
+            RemoveTopCommand remove = (RemoveTopCommand) command;
+            remove.reset(null);
+            freeRemoves.push(remove);
+        }
     }
 
     /** Returns the number of operations in the undo history. */
@@ -59,10 +103,24 @@ final class UndoManager {
  * Stores the necessary state to reverse the operation.
  */
 final class AddStudentCommand implements Command {
-    private final StudentPriorityQueue queue;
-    private final Student student;
+    private StudentPriorityQueue queue;
+    private Student student;
+
+    /** True when owned by an UndoManager free list and reused after undo */
+    final boolean pooled;
 
     AddStudentCommand(StudentPriorityQueue queue, Student student) {
+        this(queue, student, false);
+    }
+
+    AddStudentCommand(StudentPriorityQueue queue, Student student, boolean pooled) {
+        this.queue = queue;
+        this.student = student;
+        this.pooled = pooled;
+    }
+
+    /** Re-targets a pooled record; only UndoManager calls this */
+    void reset(StudentPriorityQueue queue, Student student) {
         this.queue = queue;
         this.student = student;
     }
@@ -85,11 +143,25 @@ final class AddStudentCommand implements Command {
  * Stores the removed student to enable undo.
  */
 final class RemoveTopCommand implements Command {
-    private final StudentPriorityQueue queue;
+    private StudentPriorityQueue queue;
     private Student removedStudent;
 
+    /** True when owned by an UndoManager free list and reused after undo */
+    final boolean pooled;
+
     RemoveTopCommand(StudentPriorityQueue queue) {
+        this(queue, false);
+    }
+
+    RemoveTopCommand(StudentPriorityQueue queue, boolean pooled) {
+        this.queue = queue;
+        this.pooled = pooled;
+    }
+
+    /** Re-targets a pooled record; only UndoManager calls this */
+    void reset(StudentPriorityQueue queue) {
         this.queue = queue;
+        this.removedStudent = null;
     }
 
     @Override public void execute() {